@@ -0,0 +1,96 @@
+package ru.halcyon.meetingease.api.osm;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GeocodingRateLimiter {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxQueueSize;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitObservedNanos = new AtomicLong();
+
+    private long nextFreeNanos;
+
+    public GeocodingRateLimiter(double permitsPerSecond, int burst, int maxQueueSize, Duration maxWait) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.burstNanos = (burst - 1) * intervalNanos;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    public void acquire() {
+        if (queueDepth.incrementAndGet() > maxQueueSize) {
+            queueDepth.decrementAndGet();
+            reject();
+        }
+
+        try {
+            long waitNanos = reserve();
+
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+
+            acquiredCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitObservedNanos.accumulateAndGet(waitNanos, Math::max);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Address lookup was interrupted.");
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getAcquiredCount() {
+        return acquiredCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.get());
+    }
+
+    public Duration getMaxWaitTime() {
+        return Duration.ofNanos(maxWaitObservedNanos.get());
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+
+        // Idle time refills the bucket, but never beyond the configured burst
+        long earliestNanos = Math.max(nextFreeNanos, now - burstNanos);
+        long waitNanos = Math.max(0, earliestNanos - now);
+
+        if (waitNanos > maxWaitNanos) {
+            reject();
+        }
+
+        nextFreeNanos = earliestNanos + intervalNanos;
+        return waitNanos;
+    }
+
+    private void reject() {
+        rejectedCount.incrementAndGet();
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Address lookup service is busy. Please try again later.");
+    }
+}
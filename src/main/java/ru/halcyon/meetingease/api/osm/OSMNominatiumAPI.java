@@ -3,59 +3,218 @@ package ru.halcyon.meetingease.api.osm;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.http.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
+import ru.halcyon.meetingease.config.GeocodingConfigProperties;
 import ru.halcyon.meetingease.exception.InvalidCredentialsException;
 import ru.halcyon.meetingease.support.Address;
+import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
+import ru.halcyon.meetingease.util.Metrics;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Slf4j
 @Component
+@EnableConfigurationProperties(GeocodingConfigProperties.class)
 public class OSMNominatiumAPI {
-    private static final String BASE_URL = "https://nominatim.openstreetmap.org/search";
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final Duration cacheTimeToLive;
+    private final GeocodingRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, CompletableFuture<Address>> inFlightLookups = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    public OSMNominatiumAPI(
+            GeocodingConfigProperties geocodingConfigProperties,
+            ObjectMapper objectMapper,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+        this.cacheTimeToLive = geocodingConfigProperties.getCache().getTimeToLive();
+
+        GeocodingConfigProperties.RateLimit rateLimit = geocodingConfigProperties.getRateLimit();
+        this.rateLimiter = new GeocodingRateLimiter(
+                rateLimit.getPermitsPerSecond(),
+                rateLimit.getBurst(),
+                rateLimit.getMaxQueueSize(),
+                rateLimit.getMaxWait()
+        );
+
+        // A single HttpClient keeps connections to Nominatim alive between lookups
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(geocodingConfigProperties.getConnectTimeout())
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(geocodingConfigProperties.getReadTimeout());
+
+        this.restClient = RestClient.builder()
+                .baseUrl(geocodingConfigProperties.getBaseUrl())
+                .defaultHeader(HttpHeaders.USER_AGENT, geocodingConfigProperties.getUserAgent())
+                .requestFactory(requestFactory)
+                .build();
+    }
 
     public Address getCorrectAddress(String city, String street, String houseNumber) {
-        RestTemplate restTemplate = new RestTemplate();
+        String cacheKey = getCacheKey(city, street, houseNumber);
 
-        String query = String.format("%s %s %s", city, street, houseNumber);
-        String url = String.format("%s?q=%s&format=json&addressdetails=1&limit=1&polygon_svg=1", BASE_URL, query);
+        // Served from the in-process near cache when the namespace has one, otherwise from Redis
+        Optional<Address> cachedAddress = fetchFromSharedCache(cacheKey);
+        if (cachedAddress.isPresent()) {
+            return cachedAddress.get();
+        }
+
+        CompletableFuture<Address> lookup = new CompletableFuture<>();
+        CompletableFuture<Address> inFlightLookup = inFlightLookups.putIfAbsent(cacheKey, lookup);
+
+        // Concurrent lookups of the same address wait for the one already in progress
+        if (inFlightLookup != null) {
+            coalescedCount.incrementAndGet();
+            return awaitLookup(inFlightLookup);
+        }
+
+        try {
+            Address address = lookupAddress(cacheKey, city, street, houseNumber);
+            lookup.complete(address);
+
+            return address;
+        } catch (RuntimeException ex) {
+            lookup.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlightLookups.remove(cacheKey, lookup);
+        }
+    }
+
+    public GeocodingRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    private Address lookupAddress(String cacheKey, String city, String street, String houseNumber) {
+        rateLimiter.acquire();
+        Address address = timeRequest(() -> requestAddress(city, street, houseNumber));
+
+        saveToSharedCache(cacheKey, address);
+
+        return address;
+    }
 
-        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-        HttpStatusCode status = response.getStatusCode();
+    private Address awaitLookup(CompletableFuture<Address> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
 
-        if (!status.is2xxSuccessful()) {
-            throw new InvalidCredentialsException("Something went wrong.");
+            throw ex;
         }
+    }
 
-        String responseBody = response.getBody();
-        ObjectMapper mapper = new ObjectMapper();
+    private Address timeRequest(Supplier<Address> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean success = false;
 
         try {
-            JsonNode jsonNode = mapper.readTree(responseBody);
+            Address address = request.get();
+            success = true;
+
+            return address;
+        } finally {
+            sample.stop(meterRegistry.timer("meetingease.geocoding.requests", Metrics.OUTCOME, Metrics.outcome(success)));
+        }
+    }
+
+    private Address requestAddress(String city, String street, String houseNumber) {
+        String query = String.format("%s %s %s", city, street, houseNumber);
+
+        String responseBody = restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/search")
+                        .queryParam("q", query)
+                        .queryParam("format", "json")
+                        .queryParam("addressdetails", 1)
+                        .queryParam("limit", 1)
+                        .build())
+                .retrieve()
+                .onStatus(status -> !status.is2xxSuccessful(), (request, response) -> {
+                    throw new InvalidCredentialsException("Something went wrong.");
+                })
+                .body(String.class);
+
+        try {
+            JsonNode jsonNode = objectMapper.readTree(responseBody);
             isValid(jsonNode);
 
             JsonNode addressJSON = jsonNode.get(0).get("address");
-            String addressRegion = addressJSON.get("region").toString();
-            String addressCity = addressJSON.get("city").toString();
-            String addressStreet = addressJSON.get("road").toString();
-            String addressHouseNumber = addressJSON.get("house_number").toString();
-            String displayName = jsonNode.get(0).get("display_name").toString();
 
             return Address.builder()
-                    .region(addressRegion.substring(1, addressRegion.length() - 1))
-                    .city(addressCity.substring(1, addressCity.length() - 1))
-                    .street(addressStreet.substring(1, addressStreet.length() - 1))
-                    .houseNumber(addressHouseNumber.substring(1, addressHouseNumber.length() - 1))
-                    .displayName(displayName.substring(1, displayName.length() - 1))
+                    .region(addressJSON.path("region").asText())
+                    .city(addressJSON.path("city").asText())
+                    .street(addressJSON.path("road").asText())
+                    .houseNumber(addressJSON.path("house_number").asText())
+                    .displayName(jsonNode.get(0).path("display_name").asText())
                     .build();
         } catch (JsonProcessingException ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    private void isValid(JsonNode jsonNode) {
+    private Optional<Address> fetchFromSharedCache(String cacheKey) {
         try {
-            jsonNode.get(0).get("address").get("house_number");
-        } catch (Exception ignored) {
+            return cacheManager.fetch(CacheNamespaces.GEOCODE, cacheKey);
+        } catch (Exception ex) {
+            log.warn("Failed to fetch geocoding result from cache: {}", ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void saveToSharedCache(String cacheKey, Address address) {
+        try {
+            cacheManager.save(CacheNamespaces.GEOCODE, cacheKey, address, cacheTimeToLive);
+        } catch (Exception ex) {
+            log.warn("Failed to cache geocoding result: {}", ex.getMessage());
+        }
+    }
+
+    private String getCacheKey(String city, String street, String houseNumber) {
+        return normalize(city) + "|" + normalize(street) + "|" + normalize(houseNumber);
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void isValid(JsonNode jsonNode) {
+        JsonNode houseNumber = jsonNode.path(0).path("address").path("house_number");
+
+        if (houseNumber.isMissingNode() || houseNumber.isNull()) {
             throw new InvalidCredentialsException("Please specify the correct house for the meeting.");
         }
     }
@@ -1,44 +1,186 @@
 package ru.halcyon.meetingease.aspect;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.Entity;
 import lombok.extern.slf4j.Slf4j;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.config.ServiceTracingConfigProperties;
+import ru.halcyon.meetingease.util.Metrics;
 
-import java.util.Arrays;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Aspect
 @Slf4j
+@EnableConfigurationProperties(ServiceTracingConfigProperties.class)
 public class LoggingAspect {
+    private final ServiceTracingConfigProperties properties;
+    private final MeterRegistry meterRegistry;
 
-    @Before("execution(* ru.halcyon.meetingease.service.*.*.*(..))")
-    public void logServiceMethodCall(JoinPoint joinPoint) {
-        log.info(
-                "Method {} called with arguments {}",
-                joinPoint.getSignature().getName(),
-                Arrays.toString(joinPoint.getArgs())
-        );
-    }
-
-    @AfterReturning(pointcut = "execution(* ru.halcyon.meetingease.service.*.*.*(..))", returning = "result")
-    public void logServiceMethodReturn(JoinPoint joinPoint, Object result) {
-        log.info(
-                "Method {} returned {}",
-                joinPoint.getSignature().getName(),
-                result
-        );
-    }
-
-    @AfterThrowing(pointcut = "execution(* ru.halcyon.meetingease.service.*.*.*(..))", throwing = "ex")
-    public void logServiceMethodThrow(JoinPoint joinPoint, Exception ex) {
-        log.info(
-                "Method {} throw exception {}",
-                joinPoint.getSignature().getName(),
-                ex.getMessage()
-        );
+    private final Map<Method, Double> sampleRates = new ConcurrentHashMap<>();
+    private final Map<Method, Redaction> redactions = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> failureTimers = new ConcurrentHashMap<>();
+
+    private static final Set<String> SENSITIVE_NAME_PARTS = Set.of("token", "password", "secret");
+    private static final String REDACTED = "***";
+
+    public LoggingAspect(ServiceTracingConfigProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* ru.halcyon.meetingease.service.*.*.*(..))")
+    public Object traceServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        return switch (properties.getMode()) {
+            case OFF -> joinPoint.proceed();
+            case LOG -> log.isDebugEnabled() && isSampled(joinPoint) ? logCall(joinPoint) : joinPoint.proceed();
+            case TIMING -> isSampled(joinPoint) ? timeCall(joinPoint) : joinPoint.proceed();
+        };
+    }
+
+    private Object logCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = getName(joinPoint);
+        Redaction redaction = redactions.computeIfAbsent(getMethod(joinPoint), this::getRedaction);
+        log.debug("Method {} called with arguments {}", name,
+                new Arguments(joinPoint.getArgs(), redaction.arguments(), properties.getMaxArgumentLength()));
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            log.debug("Method {} returned {} in {} us", name,
+                    new Arguments(new Object[]{result}, new boolean[]{redaction.result()}, properties.getMaxArgumentLength()), micros(start));
+
+            return result;
+        } catch (Throwable ex) {
+            log.debug("Method {} threw {} in {} us: {}", name, ex.getClass().getSimpleName(), micros(start), ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private Object timeCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = getMethod(joinPoint);
+
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            successTimers.computeIfAbsent(method, key -> timer(key, Metrics.SUCCESS)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            return result;
+        } catch (Throwable ex) {
+            failureTimers.computeIfAbsent(method, key -> timer(key, Metrics.ERROR)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private boolean isSampled(ProceedingJoinPoint joinPoint) {
+        double rate = sampleRates.computeIfAbsent(getMethod(joinPoint), method ->
+                properties.getMethodSampleRates().getOrDefault(getName(method), properties.getSampleRate()));
+
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private Timer timer(Method method, String outcome) {
+        return Timer.builder("meetingease.service.calls")
+                .tag(Metrics.CLASS, method.getDeclaringClass().getSimpleName())
+                .tag(Metrics.METHOD, method.getName())
+                .tag(Metrics.OUTCOME, outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Parameter names are only available when compiled with -parameters, so the annotation is the reliable way to mark secrets
+    private Redaction getRedaction(Method method) {
+        Parameter[] parameters = method.getParameters();
+        boolean[] arguments = new boolean[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+            String name = parameters[i].getName().toLowerCase();
+            arguments[i] = parameters[i].isAnnotationPresent(Sensitive.class)
+                    || SENSITIVE_NAME_PARTS.stream().anyMatch(name::contains);
+        }
+
+        return new Redaction(arguments, method.isAnnotationPresent(Sensitive.class));
+    }
+
+    private Method getMethod(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
+
+    private String getName(ProceedingJoinPoint joinPoint) {
+        return getName(getMethod(joinPoint));
+    }
+
+    private String getName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+
+    // Rendered only if the log line is actually written; entities and collections are summarized, never traversed
+    private record Redaction(boolean[] arguments, boolean result) {
+    }
+
+    private record Arguments(Object[] values, boolean[] redacted, int maxLength) {
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("[");
+
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+
+                builder.append(redacted[i] && values[i] != null ? REDACTED : render(values[i]));
+            }
+
+            return builder.append("]").toString();
+        }
+
+        private String render(Object value) {
+            if (value == null) {
+                return "null";
+            }
+
+            if (value instanceof Collection<?> collection) {
+                return value.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+            }
+
+            if (value instanceof HibernateProxy proxy) {
+                return proxy.getHibernateLazyInitializer().getPersistentClass().getSimpleName()
+                        + "#" + proxy.getHibernateLazyInitializer().getIdentifier();
+            }
+
+            if (value.getClass().isAnnotationPresent(Entity.class)) {
+                return value.getClass().getSimpleName() + "#" + getId(value);
+            }
+
+            String rendered = String.valueOf(value);
+            return rendered.length() > maxLength ? rendered.substring(0, maxLength) + "..." : rendered;
+        }
+
+        private Object getId(Object entity) {
+            try {
+                return entity.getClass().getMethod("getId").invoke(entity);
+            } catch (ReflectiveOperationException ex) {
+                return "?";
+            }
+        }
     }
 }
@@ -0,0 +1,12 @@
+package ru.halcyon.meetingease.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Keeps a parameter, or a method's return value, out of the service call log
+@Target({ElementType.PARAMETER, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sensitive {
+}
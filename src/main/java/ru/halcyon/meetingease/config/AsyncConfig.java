@@ -0,0 +1,38 @@
+package ru.halcyon.meetingease.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import ru.halcyon.meetingease.event.message.MessageDeliveryMetrics;
+
+@Slf4j
+@Configuration
+@EnableAsync
+@EnableConfigurationProperties(ChatConfigProperties.class)
+public class AsyncConfig {
+    public static final String CHAT_DELIVERY_EXECUTOR = "chatDeliveryExecutor";
+
+    @Bean(CHAT_DELIVERY_EXECUTOR)
+    public ThreadPoolTaskExecutor chatDeliveryExecutor(ChatConfigProperties chatConfigProperties, MessageDeliveryMetrics deliveryMetrics) {
+        ChatConfigProperties.Delivery delivery = chatConfigProperties.getDelivery();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("chat-delivery-");
+        executor.setCorePoolSize(delivery.getPoolSize());
+        executor.setMaxPoolSize(delivery.getPoolSize());
+        executor.setQueueCapacity(delivery.getQueueCapacity());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationMillis(delivery.getShutdownTimeout().toMillis());
+
+        // A saturated pool drops the push instead of blocking the sender; the message is already stored
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            deliveryMetrics.recordDropped();
+            log.warn("Chat delivery queue is full, dropping a message push");
+        });
+
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.halcyon.meetingease.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "cache")
+public class CacheConfigProperties {
+    // Namespaces listed here keep an in-process copy of their entries in front of Redis
+    @Valid
+    private Map<String, NearCache> near = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class NearCache {
+        @NotNull
+        @Positive
+        private Integer maxSize = 10000;
+
+        @NotNull
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+}
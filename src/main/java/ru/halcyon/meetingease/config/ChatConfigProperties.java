@@ -0,0 +1,75 @@
+package ru.halcyon.meetingease.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "chat.messages")
+public class ChatConfigProperties {
+    @NotNull
+    private WriteMode writeMode = WriteMode.DIRECT;
+
+    @Valid
+    private WriteBehind writeBehind = new WriteBehind();
+
+    @Valid
+    private Delivery delivery = new Delivery();
+
+    public enum WriteMode {
+        DIRECT,
+        WRITE_BEHIND
+    }
+
+    public enum Durability {
+        ASYNC,
+        FLUSH
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        @NotNull
+        private Durability durability = Durability.ASYNC;
+
+        @NotNull
+        @Positive
+        private Integer batchSize = 50;
+
+        @NotNull
+        @Positive
+        private Integer maxQueueSize = 10000;
+
+        @NotNull
+        private Duration flushInterval = Duration.ofMillis(50);
+
+        @NotNull
+        private Duration maxWait = Duration.ofSeconds(1);
+
+        @NotNull
+        private Duration flushTimeout = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Delivery {
+        @NotNull
+        @Positive
+        private Integer poolSize = 4;
+
+        @NotNull
+        @Positive
+        private Integer queueCapacity = 10000;
+
+        @NotNull
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.halcyon.meetingease.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "geocoding")
+public class GeocodingConfigProperties {
+    @NotBlank
+    private String baseUrl = "https://nominatim.openstreetmap.org";
+
+    @NotBlank
+    private String userAgent = "meetingease";
+
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    @Valid
+    private Cache cache = new Cache();
+
+    @Valid
+    private RateLimit rateLimit = new RateLimit();
+
+    @Getter
+    @Setter
+    public static class Cache {
+        // The in-process copy is sized under cache.near.geocode
+        @NotNull
+        private Duration timeToLive = Duration.ofDays(7);
+    }
+
+    @Getter
+    @Setter
+    public static class RateLimit {
+        @NotNull
+        @Positive
+        private Double permitsPerSecond = 1.0;
+
+        @NotNull
+        @Positive
+        private Integer burst = 1;
+
+        @NotNull
+        @Positive
+        private Integer maxQueueSize = 50;
+
+        @NotNull
+        private Duration maxWait = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,109 @@
+package ru.halcyon.meetingease.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.halcyon.meetingease.api.osm.GeocodingRateLimiter;
+import ru.halcyon.meetingease.api.osm.OSMNominatiumAPI;
+import ru.halcyon.meetingease.security.VerifiedTokenCache;
+import ru.halcyon.meetingease.service.chat.ChatMessageWriter;
+import ru.halcyon.meetingease.service.meeting.ChatAccessCache;
+import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.Metrics;
+import ru.halcyon.meetingease.util.NearCache;
+
+import java.util.function.ToDoubleFunction;
+
+// Publishes the counters our components already keep, instead of counting everything twice
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MeterBinder verifiedTokenCacheMetrics(VerifiedTokenCache verifiedTokenCache) {
+        return registry -> {
+            cacheRequests(registry, "verified-token", Metrics.HIT, verifiedTokenCache, VerifiedTokenCache::getHitCount);
+            cacheRequests(registry, "verified-token", Metrics.MISS, verifiedTokenCache, VerifiedTokenCache::getMissCount);
+
+            FunctionCounter.builder("meetingease.cache.evictions", verifiedTokenCache, VerifiedTokenCache::getEvictionCount)
+                    .tag(Metrics.CACHE, "verified-token")
+                    .register(registry);
+            Gauge.builder("meetingease.cache.size", verifiedTokenCache, VerifiedTokenCache::size)
+                    .tag(Metrics.CACHE, "verified-token")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder chatAccessCacheMetrics(ChatAccessCache chatAccessCache) {
+        return registry -> {
+            cacheRequests(registry, "chat-access", Metrics.HIT, chatAccessCache, ChatAccessCache::getHitCount);
+            cacheRequests(registry, "chat-access", Metrics.MISS, chatAccessCache, ChatAccessCache::getMissCount);
+        };
+    }
+
+    // Lookups that reach Redis are counted under the namespace name by CacheManager itself
+    @Bean
+    public MeterBinder nearCacheMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (NearCache nearCache: cacheManager.getNearCaches()) {
+                String cache = nearCache.getName() + "-near";
+
+                cacheRequests(registry, cache, Metrics.HIT, nearCache, NearCache::getHitCount);
+                cacheRequests(registry, cache, Metrics.MISS, nearCache, NearCache::getMissCount);
+
+                FunctionCounter.builder("meetingease.cache.evictions", nearCache, NearCache::getEvictionCount)
+                        .tag(Metrics.CACHE, cache)
+                        .register(registry);
+                Gauge.builder("meetingease.cache.size", nearCache, NearCache::size)
+                        .tag(Metrics.CACHE, cache)
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder geocodingMetrics(OSMNominatiumAPI osmNominatiumAPI) {
+        GeocodingRateLimiter rateLimiter = osmNominatiumAPI.getRateLimiter();
+
+        return registry -> {
+            Gauge.builder("meetingease.geocoding.rate-limit.queue", rateLimiter, GeocodingRateLimiter::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder("meetingease.geocoding.rate-limit.permits", rateLimiter, GeocodingRateLimiter::getAcquiredCount)
+                    .tag(Metrics.RESULT, "acquired")
+                    .register(registry);
+            FunctionCounter.builder("meetingease.geocoding.rate-limit.permits", rateLimiter, GeocodingRateLimiter::getRejectedCount)
+                    .tag(Metrics.RESULT, "rejected")
+                    .register(registry);
+            FunctionCounter.builder("meetingease.geocoding.coalesced", osmNominatiumAPI, OSMNominatiumAPI::getCoalescedCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder chatWriterMetrics(ChatMessageWriter chatMessageWriter) {
+        return registry -> {
+            Gauge.builder("meetingease.chat.writer.queue", chatMessageWriter, ChatMessageWriter::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder("meetingease.chat.writer.batches", chatMessageWriter, ChatMessageWriter::getBatchCount)
+                    .register(registry);
+            FunctionCounter.builder("meetingease.chat.writer.messages", chatMessageWriter, ChatMessageWriter::getWrittenCount)
+                    .tag(Metrics.RESULT, "written")
+                    .register(registry);
+            FunctionCounter.builder("meetingease.chat.writer.messages", chatMessageWriter, ChatMessageWriter::getRejectedCount)
+                    .tag(Metrics.RESULT, "rejected")
+                    .register(registry);
+            FunctionCounter.builder("meetingease.chat.writer.messages", chatMessageWriter, ChatMessageWriter::getFailedCount)
+                    .tag(Metrics.RESULT, "failed")
+                    .register(registry);
+        };
+    }
+
+    private <T> void cacheRequests(MeterRegistry registry, String cache, String result, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder("meetingease.cache.requests", source, count)
+                .tag(Metrics.CACHE, cache)
+                .tag(Metrics.RESULT, result)
+                .register(registry);
+    }
+}
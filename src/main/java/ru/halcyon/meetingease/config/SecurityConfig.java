@@ -1,8 +1,11 @@
 package ru.halcyon.meetingease.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -19,6 +22,10 @@ import ru.halcyon.meetingease.filter.JwtAuthFilter;
 public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
 
+    private volatile int managementPort = -1;
+
+    private static final String MANAGEMENT_NAMESPACE = "management";
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
@@ -44,8 +51,14 @@ public class SecurityConfig {
                                         "/swagger/**",
                                         "/swagger-ui/**",
                                         "/webjars/**",
-                                        "/swagger-ui.html"
+                                        "/swagger-ui.html",
+                                        // STOMP sessions authenticate on the CONNECT frame
+                                        "/ws/**",
+                                        "/ws-native/**",
+                                        "/actuator/health"
                                 ).permitAll()
+                                // Metrics are only scraped through the management port, which is not published
+                                .requestMatchers(this::isManagementRequest).permitAll()
                                 .anyRequest().authenticated()
                 )
 
@@ -54,8 +67,20 @@ public class SecurityConfig {
                 .build();
     }
 
+    // The management server shares this filter chain, so its requests are told apart by the port it was bound to
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (MANAGEMENT_NAMESPACE.equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    private boolean isManagementRequest(HttpServletRequest request) {
+        return managementPort > 0 && request.getLocalPort() == managementPort;
+    }
 }
@@ -0,0 +1,41 @@
+package ru.halcyon.meetingease.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "service-tracing")
+public class ServiceTracingConfigProperties {
+    @NotNull
+    private Mode mode = Mode.LOG;
+
+    @NotNull
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double sampleRate = 1.0;
+
+    // Keyed by SimpleClassName.methodName, overrides sample-rate for that method
+    @NotNull
+    private Map<String, Double> methodSampleRates = new HashMap<>();
+
+    @NotNull
+    @Positive
+    private Integer maxArgumentLength = 200;
+
+    public enum Mode {
+        OFF,
+        LOG,
+        TIMING
+    }
+}
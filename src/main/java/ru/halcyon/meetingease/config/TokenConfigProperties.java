@@ -9,6 +9,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Duration;
+
 @Getter
 @Setter
 @Validated
@@ -20,6 +22,9 @@ public class TokenConfigProperties {
     @Valid
     private RefreshToken refreshToken = new RefreshToken();
 
+    @Valid
+    private Revocation revocation = new Revocation();
+
     @Getter
     @Setter
     public static class AccessToken {
@@ -32,6 +37,19 @@ public class TokenConfigProperties {
         @NotNull
         @Positive
         private Integer validity;
+
+        @Valid
+        private Cache cache = new Cache();
+
+        @Getter
+        @Setter
+        public static class Cache {
+            private boolean enabled = true;
+
+            @NotNull
+            @Positive
+            private Integer maxSize = 10000;
+        }
     }
 
     @Getter
@@ -41,4 +59,19 @@ public class TokenConfigProperties {
         @Positive
         private Integer validity;
     }
+
+    @Getter
+    @Setter
+    public static class Revocation {
+        @NotNull
+        @Positive
+        private Integer expectedInsertions = 100000;
+
+        @NotNull
+        @Positive
+        private Double falsePositiveProbability = 0.001;
+
+        @NotNull
+        private Duration syncInterval = Duration.ofMinutes(1);
+    }
 }
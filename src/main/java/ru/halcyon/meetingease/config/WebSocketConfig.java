@@ -1,23 +1,66 @@
 package ru.halcyon.meetingease.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import ru.halcyon.meetingease.websocket.StompAuthChannelInterceptor;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+@EnableConfigurationProperties(WebSocketConfigProperties.class)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final WebSocketConfigProperties webSocketConfigProperties;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        String allowedOrigins = webSocketConfigProperties.getAllowedOrigins();
+
         // Enable build-in message broker
-        registry.addEndpoint("/ws").setAllowedOrigins("http://localhost:8080").withSockJS();
+        registry.addEndpoint("/ws").setAllowedOrigins(allowedOrigins).withSockJS();
+
+        // Plain WebSocket for clients that do not need the SockJS fallbacks
+        registry.addEndpoint("/ws-native").setAllowedOrigins(allowedOrigins);
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Registering WebSocket Entry Point
-        registry.enableSimpleBroker("/topic");
+        registry.enableSimpleBroker("/topic", "/queue");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        WebSocketConfigProperties.Transport transport = webSocketConfigProperties.getTransport();
+
+        registration.setMessageSizeLimit((int) transport.getMessageSizeLimit().toBytes());
+        registration.setSendBufferSizeLimit((int) transport.getSendBufferSizeLimit().toBytes());
+        registration.setSendTimeLimit((int) transport.getSendTimeLimit().toMillis());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        configureChannel(registration, webSocketConfigProperties.getInboundChannel());
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configureChannel(registration, webSocketConfigProperties.getOutboundChannel());
+    }
+
+    private void configureChannel(ChannelRegistration registration, WebSocketConfigProperties.ChannelPool pool) {
+        registration.taskExecutor()
+                .corePoolSize(pool.getCorePoolSize())
+                .maxPoolSize(pool.getMaxPoolSize())
+                .queueCapacity(pool.getQueueCapacity());
     }
 }
@@ -0,0 +1,74 @@
+package ru.halcyon.meetingease.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "websocket")
+public class WebSocketConfigProperties {
+    @NotNull
+    private String allowedOrigins = "http://localhost:8080";
+
+    @Valid
+    private Broker broker = new Broker();
+
+    @Valid
+    private Transport transport = new Transport();
+
+    @Valid
+    private ChannelPool inboundChannel = new ChannelPool();
+
+    @Valid
+    private ChannelPool outboundChannel = new ChannelPool();
+
+    public enum BrokerMode {
+        SIMPLE,
+        REDIS
+    }
+
+    @Getter
+    @Setter
+    public static class Broker {
+        @NotNull
+        private BrokerMode mode = BrokerMode.SIMPLE;
+    }
+
+    @Getter
+    @Setter
+    public static class Transport {
+        @NotNull
+        private DataSize messageSizeLimit = DataSize.ofKilobytes(64);
+
+        @NotNull
+        private DataSize sendBufferSizeLimit = DataSize.ofKilobytes(512);
+
+        @NotNull
+        private Duration sendTimeLimit = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class ChannelPool {
+        @NotNull
+        @Positive
+        private Integer corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+        @NotNull
+        @Positive
+        private Integer maxPoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+        @NotNull
+        @Positive
+        private Integer queueCapacity = 10000;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import ru.halcyon.meetingease.dto.ChatHistoryDto;
 import ru.halcyon.meetingease.dto.ChatMessageCreateDto;
 import ru.halcyon.meetingease.model.ChatMessage;
 import ru.halcyon.meetingease.service.chat.ChatMessageService;
@@ -25,7 +26,9 @@ public class ChatController {
         }
 
         ChatMessage message = chatMessageService.processMessage(dto);
-        return ResponseEntity.ok(message);
+        HttpStatus status = chatMessageService.isWritten(message) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+
+        return ResponseEntity.status(status).body(message);
     }
 
     @GetMapping("/recipient/{recipientId}")
@@ -37,4 +40,14 @@ public class ChatController {
         Page<ChatMessage> messages = chatMessageService.findChatMessages(recipientId, offset, limit);
         return ResponseEntity.ok(messages);
     }
+
+    @GetMapping("/recipient/{recipientId}/history")
+    public ResponseEntity<ChatHistoryDto> findChatHistory(
+            @PathVariable Long recipientId,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "limit", defaultValue = "20") Integer limit
+    ) {
+        ChatHistoryDto history = chatMessageService.findChatHistory(recipientId, before, limit);
+        return ResponseEntity.ok(history);
+    }
 }
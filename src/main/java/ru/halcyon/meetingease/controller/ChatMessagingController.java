@@ -0,0 +1,58 @@
+package ru.halcyon.meetingease.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentNotValidException;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.halcyon.meetingease.dto.ChatMessageCreateDto;
+import ru.halcyon.meetingease.exception.ErrorResponse;
+import ru.halcyon.meetingease.model.ChatMessage;
+import ru.halcyon.meetingease.service.chat.ChatMessageService;
+
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class ChatMessagingController {
+    private final ChatMessageService chatMessageService;
+
+    // Acknowledged with the stored message, so the sender learns its id
+    @MessageMapping("/messages")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public ChatMessage processMessage(@Payload @Valid ChatMessageCreateDto dto) {
+        return chatMessageService.processMessage(dto);
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public ErrorResponse handleValidationException(MethodArgumentNotValidException ex) {
+        String reason = ex.getBindingResult() != null && ex.getBindingResult().hasErrors()
+                ? ex.getBindingResult().getAllErrors().get(0).getDefaultMessage()
+                : ex.getMessage();
+
+        return new ErrorResponse(reason);
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public ErrorResponse handleRuntimeException(RuntimeException ex) {
+        if (ex instanceof ResponseStatusException statusException) {
+            return new ErrorResponse(statusException.getReason());
+        }
+
+        // Application exceptions carry messages meant for the user, anything else may expose internals
+        ResponseStatus responseStatus = ex.getClass().getAnnotation(ResponseStatus.class);
+        if (responseStatus != null && responseStatus.value().is4xxClientError()) {
+            return new ErrorResponse(ex.getMessage());
+        }
+
+        log.error("Failed to process chat message", ex);
+        return new ErrorResponse("Internal error.");
+    }
+}
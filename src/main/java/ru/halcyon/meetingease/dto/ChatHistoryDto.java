@@ -0,0 +1,16 @@
+package ru.halcyon.meetingease.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import ru.halcyon.meetingease.model.ChatMessage;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatHistoryDto {
+    private List<ChatMessage> messages;
+    private String nextCursor;
+}
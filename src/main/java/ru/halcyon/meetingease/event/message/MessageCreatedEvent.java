@@ -12,4 +12,6 @@ import ru.halcyon.meetingease.model.ChatMessage;
 @AllArgsConstructor
 public class MessageCreatedEvent {
     private ChatMessage message;
+
+    private final long publishedNanos = System.nanoTime();
 }
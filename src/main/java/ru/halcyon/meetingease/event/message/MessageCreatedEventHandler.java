@@ -1,24 +1,39 @@
 package ru.halcyon.meetingease.event.message;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.halcyon.meetingease.config.AsyncConfig;
 import ru.halcyon.meetingease.model.ChatMessage;
+import ru.halcyon.meetingease.websocket.StompPrincipal;
+import ru.halcyon.meetingease.websocket.UserMessageRelay;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class MessageCreatedEventHandler {
-    private final SimpMessagingTemplate messagingTemplate;
+    private final UserMessageRelay userMessageRelay;
+    private final MessageDeliveryMetrics deliveryMetrics;
 
-    @EventListener
+    // Pushed only once the message is committed, and off the request thread
+    @Async(AsyncConfig.CHAT_DELIVERY_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
     public void handleMessageCreatedEvent(MessageCreatedEvent event) {
         ChatMessage message = event.getMessage();
 
-        messagingTemplate.convertAndSendToUser(
-                String.valueOf(message.getRecipientId()),
-                "/queue/messages",
-                message
-        );
+        try {
+            userMessageRelay.sendToUser(
+                    StompPrincipal.userKey(!message.getIsSenderClient(), message.getRecipientId()),
+                    "/queue/messages",
+                    message
+            );
+
+            deliveryMetrics.recordDelivered(System.nanoTime() - event.getPublishedNanos());
+        } catch (RuntimeException ex) {
+            deliveryMetrics.recordFailed();
+            log.warn("Failed to deliver chat message {}", message.getId(), ex);
+        }
     }
 }
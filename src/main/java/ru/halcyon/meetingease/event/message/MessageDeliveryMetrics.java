@@ -0,0 +1,66 @@
+package ru.halcyon.meetingease.event.message;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.util.Metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class MessageDeliveryMetrics {
+    private final Timer deliveryTimer;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    public MessageDeliveryMetrics(MeterRegistry meterRegistry) {
+        this.deliveryTimer = Timer.builder("meetingease.chat.delivery")
+                .description("Time from a stored message being published to it being pushed to the recipient")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        FunctionCounter.builder("meetingease.chat.delivery.failures", droppedCount, AtomicLong::get)
+                .tag(Metrics.RESULT, "dropped")
+                .register(meterRegistry);
+        FunctionCounter.builder("meetingease.chat.delivery.failures", failedCount, AtomicLong::get)
+                .tag(Metrics.RESULT, "failed")
+                .register(meterRegistry);
+    }
+
+    public void recordDelivered(long latencyNanos) {
+        deliveryTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDropped() {
+        droppedCount.incrementAndGet();
+    }
+
+    public void recordFailed() {
+        failedCount.incrementAndGet();
+    }
+
+    public long getDeliveredCount() {
+        return deliveryTimer.count();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public Duration getTotalLatency() {
+        return Duration.ofNanos((long) deliveryTimer.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    // Decaying maximum over the registry's step, not since startup
+    public Duration getMaxLatency() {
+        return Duration.ofNanos((long) deliveryTimer.max(TimeUnit.NANOSECONDS));
+    }
+}
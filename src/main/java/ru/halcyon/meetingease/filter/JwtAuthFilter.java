@@ -1,6 +1,7 @@
 package ru.halcyon.meetingease.filter;
 
-import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,35 +11,50 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import ru.halcyon.meetingease.exception.TokenVerificationException;
+import ru.halcyon.meetingease.security.AccessTokenVerifier;
 import ru.halcyon.meetingease.security.JwtAuthentication;
-import ru.halcyon.meetingease.security.JwtProvider;
+import ru.halcyon.meetingease.security.VerifiedAccessToken;
 import ru.halcyon.meetingease.service.auth.TokenRevocationService;
 import ru.halcyon.meetingease.util.JwtUtil;
+import ru.halcyon.meetingease.util.Metrics;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
-    private final JwtProvider jwtProvider;
+    private final AccessTokenVerifier accessTokenVerifier;
     private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String jwtToken = getTokenFromRequest(request);
 
-        if (jwtToken != null && jwtProvider.isValidAccessToken(jwtToken)) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
 
-            if (tokenRevocationService.isRevoked(jwtToken)) {
-                throw new TokenVerificationException();
-            }
+        try {
+            Optional<VerifiedAccessToken> verifiedToken = jwtToken != null ? accessTokenVerifier.verify(jwtToken) : Optional.empty();
+
+            if (verifiedToken.isPresent()) {
 
-            Claims claims = jwtProvider.extractAllClaims(jwtToken);
+                if (tokenRevocationService.isRevoked(verifiedToken.get())) {
+                    outcome = "revoked";
+                    throw new TokenVerificationException();
+                }
 
-            JwtAuthentication jwtAuth = JwtUtil.getAuthentication(claims);
-            jwtAuth.setAuthenticated(true);
+                JwtAuthentication jwtAuth = JwtUtil.getAuthentication(verifiedToken.get());
+                jwtAuth.setAuthenticated(true);
 
-            SecurityContextHolder.getContext().setAuthentication(jwtAuth);
+                SecurityContextHolder.getContext().setAuthentication(jwtAuth);
+                outcome = "authenticated";
+            } else if (jwtToken != null) {
+                outcome = "invalid";
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("meetingease.auth.filter", Metrics.OUTCOME, outcome));
         }
 
         filterChain.doFilter(request, response);
@@ -1,6 +1,7 @@
 package ru.halcyon.meetingease.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "agents")
 @Builder
 @Getter
@@ -41,20 +43,19 @@ public class Agent {
     @Column(name = "password")
     private String password;
 
-    @OneToMany(mappedBy = "agent", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "agent", fetch = FetchType.LAZY)
     @JsonBackReference
     private List<Meeting> meetings;
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Agent agent = (Agent) o;
-        return Objects.equals(id, agent.id);
+        if (!(o instanceof Agent agent)) return false;
+        return Objects.equals(getId(), agent.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(id);
+        return Objects.hashCode(getId());
     }
 }
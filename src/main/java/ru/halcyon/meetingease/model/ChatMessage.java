@@ -13,8 +13,12 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatMessage {
+    public static final String ID_SEQUENCE = "chat_messages_id_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_messages_id_generator")
+    @SequenceGenerator(name = "chat_messages_id_generator", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "id")
     private Long id;
 
@@ -33,4 +37,10 @@ public class ChatMessage {
 
     @Column(name = "is_sender_client")
     private Boolean isSenderClient;
+
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "agent_id")
+    private Long agentId;
 }
@@ -1,5 +1,6 @@
 package ru.halcyon.meetingease.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,6 +11,7 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "meetings")
 @Builder
 @Getter
@@ -41,17 +43,17 @@ public class Meeting {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "agent_id", referencedColumnName = "Id")
     @JsonManagedReference
     private Agent agent;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "deal_id", referencedColumnName = "id")
     @JsonManagedReference
     private Deal deal;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "meetings_clients",
             joinColumns = @JoinColumn(name = "meeting_id", referencedColumnName = "id"),
@@ -63,13 +65,12 @@ public class Meeting {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Meeting meeting = (Meeting) o;
-        return Objects.equals(id, meeting.id);
+        if (!(o instanceof Meeting meeting)) return false;
+        return Objects.equals(getId(), meeting.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(id);
+        return Objects.hashCode(getId());
     }
 }
@@ -1,9 +1,15 @@
 package ru.halcyon.meetingease.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.halcyon.meetingease.model.Agent;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +18,28 @@ public interface AgentRepository extends JpaRepository<Agent, Long> {
     boolean existsByEmail(String email);
     Optional<Agent> findByEmail(String email);
     List<Agent> findAllByCity(String city);
+
+    // Reads the stored city without flushing pending changes to the agent first
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("select a.city from Agent a where a.id = :id")
+    Optional<String> findCityById(@Param("id") Long id);
+
+    @Query("select a.id from Agent a where a.city = :city order by a.id")
+    List<Long> findAllIdsByCity(@Param("city") String city);
+
+    // Waits for an agent locked by a concurrent booking rather than skipping it, as that booking may be for another time
+    @Query(value = """
+            SELECT a.id FROM agents a
+            WHERE a.city = :city
+              AND NOT EXISTS (
+                  SELECT 1 FROM meetings m
+                  WHERE m.agent_id = a.id
+                    AND m.status = 'IN_WAITING'
+                    AND m.date BETWEEN :from AND :to
+              )
+            ORDER BY a.id
+            LIMIT 1
+            FOR UPDATE OF a
+            """, nativeQuery = true)
+    Optional<Long> lockFirstFreeIdByCity(@Param("city") String city, @Param("from") Instant from, @Param("to") Instant to);
 }
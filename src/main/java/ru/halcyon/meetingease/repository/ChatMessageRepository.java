@@ -2,11 +2,30 @@ package ru.halcyon.meetingease.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.halcyon.meetingease.model.ChatMessage;
 
+import java.time.Instant;
+
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    Page<ChatMessage> findAllBySenderIdAndRecipientIdAndIsSenderClient(Long senderId, Long recipientId, Boolean isSenderClient, Pageable pageable);
+    Page<ChatMessage> findAllByClientIdAndAgentIdAndIsSenderClient(Long clientId, Long agentId, Boolean isSenderClient, Pageable pageable);
+
+    @Query("""
+            select m from ChatMessage m
+            where m.clientId = :clientId and m.agentId = :agentId
+              and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+            order by m.createdAt desc, m.id desc
+            """)
+    Slice<ChatMessage> findAllBefore(
+            @Param("clientId") Long clientId,
+            @Param("agentId") Long agentId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 }
@@ -1,5 +1,6 @@
 package ru.halcyon.meetingease.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.halcyon.meetingease.model.Client;
@@ -9,5 +10,11 @@ import java.util.Optional;
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
     boolean existsByEmail(String email);
+
+    @EntityGraph(attributePaths = "company")
     Optional<Client> findByEmail(String email);
+
+    @Override
+    @EntityGraph(attributePaths = "company")
+    Optional<Client> findById(Long id);
 }
@@ -1,5 +1,6 @@
 package ru.halcyon.meetingease.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.halcyon.meetingease.model.Company;
@@ -9,5 +10,11 @@ import java.util.Optional;
 @Repository
 public interface CompanyRepository extends JpaRepository<Company, Long> {
     boolean existsByName(String name);
+
+    @EntityGraph(attributePaths = "clients")
     Optional<Company> findByName(String name);
+
+    @Override
+    @EntityGraph(attributePaths = "clients")
+    Optional<Company> findById(Long id);
 }
@@ -1,18 +1,34 @@
 package ru.halcyon.meetingease.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.model.Client;
 import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.repository.projection.AgentBooking;
 import ru.halcyon.meetingease.support.Status;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"agent", "deal", "clients", "clients.company"})
+    Optional<Meeting> findById(Long id);
+
+    @EntityGraph(attributePaths = {"agent", "deal", "clients"})
     List<Meeting> findAllByStatusAndClientsContaining(Status status, Client client);
+
+    long countByStatusAndClientsContaining(Status status, Client client);
     List<Meeting> findAllByCityAndStatus(String city, Status status);
-    Boolean existsByAgentAndClientsContainingAndStatus(Agent agent, Client client, Status status);
+    boolean existsByAgentIdAndClientsIdAndStatus(Long agentId, Long clientId, Status status);
+    boolean existsByAgentIdAndStatusAndDateBetween(Long agentId, Status status, Instant from, Instant to);
+
+    @Query("select m.agent.id as agentId, m.id as meetingId, m.date as date from Meeting m where m.agent.city = :city and m.status = :status")
+    List<AgentBooking> findAllBookingsByAgentCityAndStatus(@Param("city") String city, @Param("status") Status status);
 }
@@ -0,0 +1,9 @@
+package ru.halcyon.meetingease.repository.projection;
+
+import java.time.Instant;
+
+public interface AgentBooking {
+    Long getAgentId();
+    Long getMeetingId();
+    Instant getDate();
+}
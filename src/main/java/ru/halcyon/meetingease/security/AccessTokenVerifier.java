@@ -0,0 +1,27 @@
+package ru.halcyon.meetingease.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class AccessTokenVerifier {
+    private final JwtProvider jwtProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public Optional<VerifiedAccessToken> verify(String jwtToken) {
+        long keyVersion = jwtProvider.getKeyVersion();
+        Optional<VerifiedAccessToken> cachedToken = verifiedTokenCache.get(jwtToken, keyVersion);
+
+        if (cachedToken.isPresent()) {
+            return cachedToken;
+        }
+
+        Optional<VerifiedAccessToken> verifiedToken = jwtProvider.verifyAccessToken(jwtToken);
+        verifiedToken.ifPresent(token -> verifiedTokenCache.put(jwtToken, token, keyVersion));
+
+        return verifiedToken;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.halcyon.meetingease.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.halcyon.meetingease.exception.ResourceNotFoundException;
+import ru.halcyon.meetingease.model.Agent;
+import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.repository.AgentRepository;
+import ru.halcyon.meetingease.repository.ClientRepository;
+
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+public class CurrentPrincipal {
+    private final AuthenticatedDataProvider authenticatedDataProvider;
+    private final ClientRepository clientRepository;
+    private final AgentRepository agentRepository;
+
+    private static final String CLIENT_ATTRIBUTE = CurrentPrincipal.class.getName() + ".client:";
+    private static final String AGENT_ATTRIBUTE = CurrentPrincipal.class.getName() + ".agent:";
+
+    public boolean isClient() {
+        return authenticatedDataProvider.getIsClient();
+    }
+
+    public Client getClient() {
+        return resolve(CLIENT_ATTRIBUTE, email -> clientRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Client with this email not found.")));
+    }
+
+    public Agent getAgent() {
+        return resolve(AGENT_ATTRIBUTE, email -> agentRepository.findByEmail(email)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent with this email not found.")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T resolve(String attributePrefix, Function<String, T> loader) {
+        String email = authenticatedDataProvider.getEmail();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        // Outside of an HTTP request there is nothing to memoize in, so every call hits the repository
+        if (attributes == null) {
+            return loader.apply(email);
+        }
+
+        // Keyed by email so a principal swapped mid-request is never served a stale entity
+        String attributeName = attributePrefix + email;
+        T principal = (T) attributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+
+        if (principal == null) {
+            principal = loader.apply(email);
+            attributes.setAttribute(attributeName, principal, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        return principal;
+    }
+}
@@ -1,8 +1,12 @@
 package ru.halcyon.meetingease.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -11,6 +15,7 @@ import ru.halcyon.meetingease.config.TokenConfigProperties;
 import ru.halcyon.meetingease.exception.InvalidKeyException;
 import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.util.Metrics;
 
 import java.security.KeyFactory;
 import java.security.NoSuchAlgorithmException;
@@ -24,6 +29,7 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -33,27 +39,39 @@ import java.util.function.Function;
 public class JwtProvider {
     private final TokenConfigProperties tokenConfigProperties;
     private final String issuer;
+    private final MeterRegistry meterRegistry;
+
+    private volatile KeyMaterial keyMaterial;
 
     public JwtProvider(
             TokenConfigProperties tokenConfigProperties,
-            @Value("${spring.application.name}") String issuer
+            @Value("${spring.application.name}") String issuer,
+            MeterRegistry meterRegistry
     ) {
         this.tokenConfigProperties = tokenConfigProperties;
         this.issuer = issuer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        getKeyMaterial();
     }
 
     public String generateAccessTokenForClient(Client client) {
         Map<String, Boolean> extraClaims = new HashMap<>();
         extraClaims.put("isClient", true);
 
-        return generateAccessToken(client.getEmail(), extraClaims);
+        return meterRegistry.timer("meetingease.jwt.sign", Metrics.TYPE, "client")
+                .record(() -> generateAccessToken(client.getEmail(), extraClaims));
     }
 
     public String generateAccessTokenForAgent(Agent agent) {
         Map<String, Boolean> extraClaims = new HashMap<>();
         extraClaims.put("isClient", false);
 
-        return generateAccessToken(agent.getEmail(), extraClaims);
+        return meterRegistry.timer("meetingease.jwt.sign", Metrics.TYPE, "agent")
+                .record(() -> generateAccessToken(agent.getEmail(), extraClaims));
     }
 
     private String generateAccessToken(String email, Map<String, Boolean> extraClaims) {
@@ -70,16 +88,13 @@ public class JwtProvider {
                 .issuer(issuer)
                 .issuedAt(currentTimestamp)
                 .expiration(expirationTimestamp)
-                .signWith(getPrivateKey(), Jwts.SIG.RS512)
+                .signWith(getKeyMaterial().privateKey, Jwts.SIG.RS512)
                 .compact();
     }
 
     public boolean isValidAccessToken(String jwtToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getPublicKey())
-                    .build()
-                    .parse(jwtToken);
+            getKeyMaterial().parser.parse(jwtToken);
 
             return true;
         } catch (Exception ignored) {
@@ -87,6 +102,31 @@ public class JwtProvider {
         }
     }
 
+    public Optional<VerifiedAccessToken> verifyAccessToken(String jwtToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Optional<VerifiedAccessToken> verifiedToken = parseAccessToken(jwtToken);
+        sample.stop(meterRegistry.timer("meetingease.jwt.verify", Metrics.OUTCOME, verifiedToken.isPresent() ? "valid" : "invalid"));
+
+        return verifiedToken;
+    }
+
+    private Optional<VerifiedAccessToken> parseAccessToken(String jwtToken) {
+        try {
+            Claims claims = getKeyMaterial().issuerParser
+                    .parseSignedClaims(jwtToken)
+                    .getPayload();
+
+            return Optional.of(new VerifiedAccessToken(
+                    claims.getSubject(),
+                    claims.getId(),
+                    Boolean.TRUE.equals(claims.get("isClient", Boolean.class)),
+                    claims.getExpiration().toInstant()
+            ));
+        } catch (Exception ignored) {
+            return Optional.empty();
+        }
+    }
+
     public String extractEmail(String token) {
        return extractClaim(token, Claims::getSubject);
     }
@@ -102,25 +142,58 @@ public class JwtProvider {
     }
 
     public Claims extractAllClaims(String token) {
-        return (Claims) Jwts.parser()
-                .verifyWith(getPublicKey())
-                .build()
+        return (Claims) getKeyMaterial().parser
                 .parse(token)
                 .getPayload();
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parser()
-                .requireIssuer(issuer)
-                .verifyWith(getPublicKey())
-                .build()
+        Claims claims = getKeyMaterial().issuerParser
                 .parseSignedClaims(token)
                 .getPayload();
         return claimsResolver.apply(claims);
     }
 
-    private PrivateKey getPrivateKey() {
-        String privateKey = tokenConfigProperties.getAccessToken().getPrivateKey();
+    // Changes whenever the signing keys are reloaded, so results verified with older keys can be discarded
+    public long getKeyVersion() {
+        return getKeyMaterial().version;
+    }
+
+    private KeyMaterial getKeyMaterial() {
+        TokenConfigProperties.AccessToken accessToken = tokenConfigProperties.getAccessToken();
+        KeyMaterial current = keyMaterial;
+
+        // Keys are decoded once and re-decoded only when the configured PEM values change
+        if (current == null || !current.isLoadedFrom(accessToken.getPrivateKey(), accessToken.getPublicKey())) {
+            synchronized (this) {
+                current = keyMaterial;
+
+                if (current == null || !current.isLoadedFrom(accessToken.getPrivateKey(), accessToken.getPublicKey())) {
+                    long version = current == null ? 1 : current.version + 1;
+                    current = loadKeyMaterial(accessToken.getPrivateKey(), accessToken.getPublicKey(), version);
+                    keyMaterial = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    private KeyMaterial loadKeyMaterial(String privateKeySource, String publicKeySource, long version) {
+        PublicKey publicKey = getPublicKey(publicKeySource);
+
+        JwtParser parser = Jwts.parser()
+                .verifyWith(publicKey)
+                .build();
+        JwtParser issuerParser = Jwts.parser()
+                .requireIssuer(issuer)
+                .verifyWith(publicKey)
+                .build();
+
+        return new KeyMaterial(privateKeySource, publicKeySource, getPrivateKey(privateKeySource), parser, issuerParser, version);
+    }
+
+    private PrivateKey getPrivateKey(String privateKey) {
         String sanitizedPrivateKey = sanitizeKey(privateKey);
 
         byte[] decodedPrivateKey = Decoders.BASE64.decode(sanitizedPrivateKey);
@@ -133,8 +206,7 @@ public class JwtProvider {
         }
     }
 
-    private PublicKey getPublicKey() {
-        String publicKey = tokenConfigProperties.getAccessToken().getPublicKey();
+    private PublicKey getPublicKey(String publicKey) {
         String sanitizedPublicKey = sanitizeKey(publicKey);
 
         byte[] decodedPublicKey = Decoders.BASE64.decode(sanitizedPublicKey);
@@ -156,4 +228,26 @@ public class JwtProvider {
                 .replaceAll("\\n", StringUtils.EMPTY)
                 .replaceAll("\\s", StringUtils.EMPTY);
     }
+
+    private static final class KeyMaterial {
+        private final String privateKeySource;
+        private final String publicKeySource;
+        private final PrivateKey privateKey;
+        private final JwtParser parser;
+        private final JwtParser issuerParser;
+        private final long version;
+
+        private KeyMaterial(String privateKeySource, String publicKeySource, PrivateKey privateKey, JwtParser parser, JwtParser issuerParser, long version) {
+            this.privateKeySource = privateKeySource;
+            this.publicKeySource = publicKeySource;
+            this.privateKey = privateKey;
+            this.parser = parser;
+            this.issuerParser = issuerParser;
+            this.version = version;
+        }
+
+        private boolean isLoadedFrom(String privateKey, String publicKey) {
+            return privateKeySource.equals(privateKey) && publicKeySource.equals(publicKey);
+        }
+    }
 }
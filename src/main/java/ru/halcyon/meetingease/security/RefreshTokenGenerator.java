@@ -5,6 +5,7 @@ import lombok.SneakyThrows;
 import org.springframework.stereotype.Component;
 import ru.halcyon.meetingease.config.TokenConfigProperties;
 import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -42,6 +43,6 @@ public class RefreshTokenGenerator {
 
     private void saveRefreshTokenInCache(String refreshToken, String email) {
         int refreshTokenValidity = tokenConfigProperties.getRefreshToken().getValidity();
-        cacheManager.save(refreshToken, email, Duration.ofMinutes(refreshTokenValidity));
+        cacheManager.save(CacheNamespaces.REFRESH_TOKENS, refreshToken, email, Duration.ofMinutes(refreshTokenValidity));
     }
 }
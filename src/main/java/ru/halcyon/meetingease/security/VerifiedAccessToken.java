@@ -0,0 +1,15 @@
+package ru.halcyon.meetingease.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedAccessToken {
+    private final String subject;
+    private final String jti;
+    private final boolean isClient;
+    private final Instant expiration;
+}
@@ -0,0 +1,88 @@
+package ru.halcyon.meetingease.security;
+
+import lombok.SneakyThrows;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.config.TokenConfigProperties;
+import ru.halcyon.meetingease.util.ExpiringCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Optional;
+
+@Component
+@EnableConfigurationProperties(TokenConfigProperties.class)
+public class VerifiedTokenCache {
+    private final boolean enabled;
+    private final ExpiringCache<String, VerifiedAccessToken> cache;
+
+    private volatile long keyVersion;
+
+    private static final String ALGORITHM = "SHA-256";
+
+    public VerifiedTokenCache(TokenConfigProperties tokenConfigProperties) {
+        TokenConfigProperties.AccessToken.Cache cacheProperties = tokenConfigProperties.getAccessToken().getCache();
+
+        this.enabled = cacheProperties.isEnabled();
+        this.cache = new ExpiringCache<>(cacheProperties.getMaxSize());
+    }
+
+    public Optional<VerifiedAccessToken> get(String jwtToken, long currentKeyVersion) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        onKeyVersion(currentKeyVersion);
+
+        return cache.get(hash(jwtToken));
+    }
+
+    // Tokens verified with keys that have since been rotated out are not cached
+    public void put(String jwtToken, VerifiedAccessToken token, long verifiedKeyVersion) {
+        if (enabled && verifiedKeyVersion == keyVersion) {
+            cache.put(hash(jwtToken), token, token.getExpiration());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private void onKeyVersion(long currentKeyVersion) {
+        if (currentKeyVersion == keyVersion) {
+            return;
+        }
+
+        synchronized (this) {
+            if (currentKeyVersion != keyVersion) {
+                cache.invalidateAll();
+                keyVersion = currentKeyVersion;
+            }
+        }
+    }
+
+    @SneakyThrows
+    private String hash(String jwtToken) {
+        MessageDigest messageDigest = MessageDigest.getInstance(ALGORITHM);
+        byte[] hash = messageDigest.digest(jwtToken.getBytes(StandardCharsets.UTF_8));
+
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
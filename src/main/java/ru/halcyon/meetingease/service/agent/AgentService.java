@@ -5,16 +5,32 @@ import org.springframework.stereotype.Service;
 import ru.halcyon.meetingease.exception.ResourceNotFoundException;
 import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.repository.AgentRepository;
+import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class AgentService {
     private final AgentRepository agentRepository;
+    private final CacheManager cacheManager;
+
+    private static final Duration AGENT_IDS_CACHE_TIME_TO_LIVE = Duration.ofMinutes(10);
 
     public Agent save(Agent agent) {
-        return agentRepository.save(agent);
+        Optional<String> previousCity = agent.getId() != null ? agentRepository.findCityById(agent.getId()) : Optional.empty();
+
+        Agent savedAgent = agentRepository.save(agent);
+        cacheManager.evict(CacheNamespaces.AGENT_IDS_BY_CITY, savedAgent.getCity());
+
+        // An agent moving to another city leaves the list of the previous one as well
+        previousCity.filter(city -> !city.equals(savedAgent.getCity()))
+                .ifPresent(city -> cacheManager.evict(CacheNamespaces.AGENT_IDS_BY_CITY, city));
+
+        return savedAgent;
     }
 
     public boolean existsByEmail(String email) {
@@ -34,4 +50,10 @@ public class AgentService {
     public List<Agent> findAllByCity(String city) {
         return agentRepository.findAllByCity(city);
     }
+
+    public List<Long> findAllIdsByCity(String city) {
+        return cacheManager.fetchOrLoad(CacheNamespaces.AGENT_IDS_BY_CITY, city, AGENT_IDS_CACHE_TIME_TO_LIVE,
+                        () -> Optional.of(agentRepository.findAllIdsByCity(city)))
+                .orElseThrow();
+    }
 }
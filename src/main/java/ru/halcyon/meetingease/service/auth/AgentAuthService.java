@@ -4,12 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import ru.halcyon.meetingease.aspect.Sensitive;
 import ru.halcyon.meetingease.exception.TokenVerificationException;
 import ru.halcyon.meetingease.exception.InvalidCredentialsException;
 import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.security.*;
 import ru.halcyon.meetingease.service.agent.AgentService;
 import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
 
 @Service
 @RequiredArgsConstructor
@@ -20,7 +22,8 @@ public class AgentAuthService {
     private final PasswordEncoder passwordEncoder;
     private final AgentService agentService;
 
-    public AuthResponse login(AuthRequest request) {
+    @Sensitive
+    public AuthResponse login(@Sensitive AuthRequest request) {
         Agent agent = agentService.findByEmail(request.getEmail());
 
         if (!passwordEncoder.matches(request.getPassword(), agent.getPassword())) {
@@ -30,8 +33,9 @@ public class AgentAuthService {
         return getAuthResponse(agent);
     }
 
-    public AuthResponse getTokensByRefresh(String refreshToken, boolean isRefresh) {
-        String subject = cacheManager.fetch(refreshToken, String.class)
+    @Sensitive
+    public AuthResponse getTokensByRefresh(@Sensitive String refreshToken, boolean isRefresh) {
+        String subject = cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, refreshToken)
                 .orElseThrow(TokenVerificationException::new);
         Agent agent = agentService.findByEmail(subject);
 
@@ -3,6 +3,7 @@ package ru.halcyon.meetingease.service.auth;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import ru.halcyon.meetingease.aspect.Sensitive;
 import ru.halcyon.meetingease.dto.ClientRegisterDto;
 import ru.halcyon.meetingease.exception.ResourceAlreadyExistsException;
 import ru.halcyon.meetingease.exception.TokenVerificationException;
@@ -13,6 +14,7 @@ import ru.halcyon.meetingease.service.client.ClientService;
 import ru.halcyon.meetingease.service.mail.MailService;
 import ru.halcyon.meetingease.support.Role;
 import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
 
 @Service
 @RequiredArgsConstructor
@@ -24,7 +26,8 @@ public class ClientAuthService {
     private final ClientService clientService;
     private final MailService mailService;
 
-    public AuthResponse register(ClientRegisterDto dto) {
+    @Sensitive
+    public AuthResponse register(@Sensitive ClientRegisterDto dto) {
         if (clientService.existsByEmail(dto.getEmail())) {
             throw new ResourceAlreadyExistsException("Client with this email already exists.");
         }
@@ -48,7 +51,8 @@ public class ClientAuthService {
     }
 
     
-    public AuthResponse login(AuthRequest request) {
+    @Sensitive
+    public AuthResponse login(@Sensitive AuthRequest request) {
         Client client = clientService.findByEmail(request.getEmail());
 
         if (!passwordEncoder.matches(request.getPassword(), client.getPassword())) {
@@ -66,8 +70,9 @@ public class ClientAuthService {
     }
 
     
-    public AuthResponse getTokensByRefresh(String refreshToken, boolean isRefresh) {
-        String subject = cacheManager.fetch(refreshToken, String.class)
+    @Sensitive
+    public AuthResponse getTokensByRefresh(@Sensitive String refreshToken, boolean isRefresh) {
+        String subject = cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, refreshToken)
                 .orElseThrow(TokenVerificationException::new);
         Client client = clientService.findByEmail(subject);
 
@@ -78,7 +83,7 @@ public class ClientAuthService {
     }
 
     
-    public String verifyByToken(String token) {
+    public String verifyByToken(@Sensitive String token) {
         String subject = jwtProvider.extractEmail(token);
         Client client = clientService.findByEmail(subject);
 
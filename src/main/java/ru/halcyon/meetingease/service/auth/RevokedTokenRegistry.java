@@ -0,0 +1,207 @@
+package ru.halcyon.meetingease.service.auth;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.config.TokenConfigProperties;
+import ru.halcyon.meetingease.util.BloomFilter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(TokenConfigProperties.class)
+public class RevokedTokenRegistry implements MessageListener {
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final TokenConfigProperties.Revocation revocationProperties;
+
+    // Only the sync thread rebuilds the filter, so requests never wait for Redis
+    private final ScheduledExecutorService syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "revoked-token-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean growRequested = new AtomicBoolean();
+
+    // Guards swapping the filter against revocations arriving while it is rebuilt
+    private final Object filterLock = new Object();
+    private final Set<String> addedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private int insertions;
+    private int capacity;
+
+    private volatile BloomFilter filter;
+    private int failedSyncs;
+
+    public static final String REVOKED_JTIS_KEY = "revoked-jtis";
+    public static final String REVOKED_JTIS_CHANNEL = "revoked-jtis";
+
+    // The same set as written while keys were still JSON-encoded
+    public static final String LEGACY_REVOKED_JTIS_KEY = "\"" + REVOKED_JTIS_KEY + "\"";
+
+    private static final RedisScript<Long> MIGRATE_LEGACY_KEY_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then
+                return 0
+            end
+            local moved = redis.call('ZCARD', KEYS[2])
+            redis.call('ZUNIONSTORE', KEYS[1], 2, KEYS[1], KEYS[2], 'AGGREGATE', 'MAX')
+            redis.call('DEL', KEYS[2])
+            return moved
+            """, Long.class);
+
+    private static final Duration MIN_RETRY_DELAY = Duration.ofSeconds(1);
+
+    public RevokedTokenRegistry(
+            RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            TokenConfigProperties tokenConfigProperties
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.revocationProperties = tokenConfigProperties.getRevocation();
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOKED_JTIS_CHANNEL));
+        syncAndReschedule();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        syncExecutor.shutdownNow();
+    }
+
+    public void register(String jti, Instant expiration) {
+        redisTemplate.opsForZSet().add(REVOKED_JTIS_KEY, jti, expiration.toEpochMilli());
+        redisTemplate.convertAndSend(REVOKED_JTIS_CHANNEL, jti);
+        add(jti);
+    }
+
+    public boolean mightBeRevoked(String jti) {
+        BloomFilter current = filter;
+
+        // Without a synchronized filter every token has to be checked against Redis
+        return current == null || current.mightContain(jti);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object jti = redisTemplate.getValueSerializer().deserialize(message.getBody());
+
+        if (jti != null) {
+            add(String.valueOf(jti));
+        }
+    }
+
+    private void add(String jti) {
+        boolean full;
+
+        synchronized (filterLock) {
+            if (filter != null) {
+                filter.put(jti);
+            }
+
+            if (rebuilding) {
+                addedDuringRebuild.add(jti);
+            }
+
+            full = filter != null && ++insertions > capacity;
+        }
+
+        // A filter past its capacity loses precision, so it is rebuilt larger without waiting for the next sync
+        if (full && growRequested.compareAndSet(false, true)) {
+            syncExecutor.execute(() -> {
+                growRequested.set(false);
+                sync();
+            });
+        }
+    }
+
+    private void syncAndReschedule() {
+        Duration delay;
+
+        if (sync()) {
+            failedSyncs = 0;
+            delay = revocationProperties.getSyncInterval();
+        } else {
+            // Back off while Redis is unavailable instead of retrying at full rate
+            Duration retryDelay = MIN_RETRY_DELAY.multipliedBy(1L << Math.min(failedSyncs++, 16));
+            delay = retryDelay.compareTo(revocationProperties.getSyncInterval()) < 0 ? retryDelay : revocationProperties.getSyncInterval();
+        }
+
+        try {
+            syncExecutor.schedule(this::syncAndReschedule, delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Revoked tokens sync stopped");
+        }
+    }
+
+    private boolean sync() {
+        synchronized (filterLock) {
+            rebuilding = true;
+            addedDuringRebuild.clear();
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            migrateLegacyKey();
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_JTIS_KEY, 0, now);
+            Set<Object> revokedJtis = redisTemplate.opsForZSet().range(REVOKED_JTIS_KEY, 0, -1);
+            int count = revokedJtis == null ? 0 : revokedJtis.size();
+
+            int rebuiltCapacity = Math.max(revocationProperties.getExpectedInsertions(), count * 2);
+            BloomFilter rebuiltFilter = new BloomFilter(rebuiltCapacity, revocationProperties.getFalsePositiveProbability());
+
+            if (revokedJtis != null) {
+                for (Object jti: revokedJtis) {
+                    rebuiltFilter.put(String.valueOf(jti));
+                }
+            }
+
+            // Revocations that arrived after the range was read are replayed before the swap
+            synchronized (filterLock) {
+                addedDuringRebuild.forEach(rebuiltFilter::put);
+
+                insertions = count + addedDuringRebuild.size();
+                capacity = rebuiltCapacity;
+                filter = rebuiltFilter;
+            }
+
+            return true;
+        } catch (Exception ex) {
+            log.warn("Failed to synchronize revoked tokens filter: {}", ex.getMessage());
+            return false;
+        } finally {
+            synchronized (filterLock) {
+                rebuilding = false;
+                addedDuringRebuild.clear();
+            }
+        }
+    }
+
+    // Moves revocations made before the key switch, so upgrading does not un-revoke tokens. Runs as one script so a
+    // revocation written under the legacy key by a node that is not upgraded yet can't be deleted without being moved
+    private void migrateLegacyKey() {
+        redisTemplate.execute(MIGRATE_LEGACY_KEY_SCRIPT, List.of(REVOKED_JTIS_KEY, LEGACY_REVOKED_JTIS_KEY));
+    }
+}
@@ -1,12 +1,19 @@
 package ru.halcyon.meetingease.service.auth;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.halcyon.meetingease.exception.TokenVerificationException;
 import ru.halcyon.meetingease.security.JwtProvider;
+import ru.halcyon.meetingease.security.VerifiedAccessToken;
 import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
+import ru.halcyon.meetingease.util.Metrics;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 
 @Service
@@ -14,19 +21,34 @@ import java.util.Optional;
 public class TokenRevocationService {
     private final JwtProvider jwtProvider;
     private final CacheManager cacheManager;
+    private final RevokedTokenRegistry revokedTokenRegistry;
     private final HttpServletRequest httpServletRequest;
+    private final MeterRegistry meterRegistry;
+
+    private static final String BEARER_PREFIX = "Bearer ";
     
     public void revoke() {
         String authHeader = Optional.ofNullable(httpServletRequest.getHeader("Authorization"))
                 .orElseThrow(IllegalStateException::new);
+        String jwtToken = authHeader.startsWith(BEARER_PREFIX) ? authHeader.substring(BEARER_PREFIX.length()) : authHeader;
+
+        VerifiedAccessToken token = jwtProvider.verifyAccessToken(jwtToken)
+                .orElseThrow(TokenVerificationException::new);
+        Duration ttl = Duration.between(Instant.now(), token.getExpiration());
+        cacheManager.save(CacheNamespaces.REVOKED_JTIS, token.getJti(), ttl);
+        revokedTokenRegistry.register(token.getJti(), token.getExpiration());
+        meterRegistry.counter("meetingease.token.revocations").increment();
+    }
 
-        String jti = jwtProvider.extractJti(authHeader);
-        Duration ttl = jwtProvider.extractTimeUntilExpiration(authHeader);
-        cacheManager.save(jti, ttl);
+    public boolean isRevoked(VerifiedAccessToken token) {
+        return isRevoked(token.getJti());
     }
 
-    public boolean isRevoked(String authHeader) {
-        String jti = jwtProvider.extractJti(authHeader);
-        return cacheManager.isPresent(jti);
+    public boolean isRevoked(String jti) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean revoked = revokedTokenRegistry.mightBeRevoked(jti) && cacheManager.exists(CacheNamespaces.REVOKED_JTIS, jti);
+        sample.stop(meterRegistry.timer("meetingease.token.revocation.check", Metrics.RESULT, revoked ? "revoked" : "active"));
+
+        return revoked;
     }
 }
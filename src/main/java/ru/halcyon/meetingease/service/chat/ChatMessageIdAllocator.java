@@ -0,0 +1,25 @@
+package ru.halcyon.meetingease.service.chat;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.model.ChatMessage;
+
+@Component
+@RequiredArgsConstructor
+public class ChatMessageIdAllocator {
+    private final JdbcTemplate jdbcTemplate;
+
+    private long next;
+    private long hi;
+
+    // Same pooled interpretation as Hibernate: a sequence value hi reserves (hi - allocationSize, hi]
+    public synchronized long nextId() {
+        if (next > hi || hi == 0) {
+            hi = jdbcTemplate.queryForObject("SELECT nextval('" + ChatMessage.ID_SEQUENCE + "')", Long.class);
+            next = Math.max(hi - ChatMessage.ID_ALLOCATION_SIZE + 1, 1);
+        }
+
+        return next++;
+    }
+}
@@ -5,92 +5,143 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import ru.halcyon.meetingease.dto.ChatHistoryDto;
 import ru.halcyon.meetingease.dto.ChatMessageCreateDto;
 import ru.halcyon.meetingease.event.message.MessageCreatedEvent;
 import ru.halcyon.meetingease.exception.ResourceForbiddenException;
 import ru.halcyon.meetingease.exception.ResourceNotFoundException;
-import ru.halcyon.meetingease.model.Agent;
-import ru.halcyon.meetingease.model.Client;
 import ru.halcyon.meetingease.model.ChatMessage;
 import ru.halcyon.meetingease.repository.ChatMessageRepository;
-import ru.halcyon.meetingease.security.AuthenticatedDataProvider;
+import ru.halcyon.meetingease.security.CurrentPrincipal;
 import ru.halcyon.meetingease.service.agent.AgentService;
-import ru.halcyon.meetingease.service.auth.AgentAuthService;
 import ru.halcyon.meetingease.service.auth.ClientAuthService;
 import ru.halcyon.meetingease.service.client.ClientService;
 import ru.halcyon.meetingease.service.meeting.MeetingService;
+import ru.halcyon.meetingease.util.ChatCursor;
+
+import java.time.Instant;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class ChatMessageService {
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageWriter chatMessageWriter;
 
     private final ClientAuthService clientAuthService;
-    private final AgentAuthService agentAuthService;
     private final ClientService clientService;
     private final AgentService agentService;
     private final MeetingService meetingService;
-    private final AuthenticatedDataProvider authenticatedDataProvider;
+    private final CurrentPrincipal currentPrincipal;
 
     private final ApplicationEventPublisher eventPublisher;
 
+    private static final int MAX_HISTORY_LIMIT = 100;
+
     public ChatMessage save(ChatMessage chatMessage) {
-        return chatMessageRepository.save(chatMessage);
+        return chatMessageWriter.write(chatMessage);
     }
 
     public ChatMessage processMessage(ChatMessageCreateDto dto) {
-        ChatMessage message = authenticatedDataProvider.getIsClient() ? processClientMessage(dto) : processAgentMessage(dto);
+        ChatMessage message = currentPrincipal.isClient() ? processClientMessage(dto) : processAgentMessage(dto);
         sendMessage(message);
 
         return message;
     }
 
+    public boolean isWritten(ChatMessage message) {
+        return chatMessageWriter.isWritten(message);
+    }
+
     public Page<ChatMessage> findChatMessages(Long recipientId, Integer offset, Integer limit) {
-        return authenticatedDataProvider.getIsClient() ? processClientMessages(recipientId, offset, limit) : processAgentMessages(recipientId, offset, limit);
+        return currentPrincipal.isClient() ? processClientMessages(recipientId, offset, limit) : processAgentMessages(recipientId, offset, limit);
+    }
+
+    public ChatHistoryDto findChatHistory(Long recipientId, String before, Integer limit) {
+        if (limit < 1 || limit > MAX_HISTORY_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_HISTORY_LIMIT + ".");
+        }
+
+        ChatCursor cursor = ChatCursor.decode(before);
+        Optional<Instant> watermark = chatMessageWriter.getHistoryWatermark();
+
+        if (watermark.isPresent() && cursor.createdAt().isAfter(watermark.get())) {
+            cursor = new ChatCursor(watermark.get(), Long.MAX_VALUE);
+        }
+
+        Slice<ChatMessage> messages = currentPrincipal.isClient()
+                ? processClientHistory(recipientId, cursor, limit)
+                : processAgentHistory(recipientId, cursor, limit);
+
+        String nextCursor = messages.hasNext()
+                ? ChatCursor.of(messages.getContent().get(messages.getNumberOfElements() - 1)).encode()
+                : null;
+
+        return new ChatHistoryDto(messages.getContent(), nextCursor);
     }
 
     private ChatMessage processClientMessage(ChatMessageCreateDto dto) {
         clientService.isVerifiedClient();
 
-        Client client = clientService.findByEmail(authenticatedDataProvider.getEmail());
-        Agent agent = agentService.findById(dto.getRecipientId());
+        Long clientId = currentPrincipal.getClient().getId();
+        Long agentId = dto.getRecipientId();
 
-        isThereMeeting(client, agent);
+        isThereMeeting(clientId, agentId, true);
 
-        return save(getChatMessage(dto.getContent(), client.getId(), agent.getId(), true));
+        return save(getChatMessage(dto.getContent(), clientId, agentId, true));
     }
 
     private ChatMessage processAgentMessage(ChatMessageCreateDto dto) {
-        Agent agent = agentService.findByEmail(agentAuthService.getAuthInfo().getEmail());
-        Client client = clientService.findById(dto.getRecipientId());
+        Long agentId = currentPrincipal.getAgent().getId();
+        Long clientId = dto.getRecipientId();
 
-        isThereMeeting(client, agent);
+        isThereMeeting(clientId, agentId, false);
 
-        return save(getChatMessage(dto.getContent(), agent.getId(), client.getId(), false));
+        return save(getChatMessage(dto.getContent(), agentId, clientId, false));
     }
 
     private Page<ChatMessage> processClientMessages(long recipientId, Integer offset, Integer limit) {
         clientService.isVerifiedClient();
 
-        Client client = clientService.findByEmail(authenticatedDataProvider.getEmail());
-        Agent agent = agentService.findById(recipientId);
+        Long clientId = currentPrincipal.getClient().getId();
 
-        isThereMeeting(client, agent);
+        isThereMeeting(clientId, recipientId, true);
 
-        return chatMessageRepository.findAllBySenderIdAndRecipientIdAndIsSenderClient(client.getId(), agent.getId(), true,
-                PageRequest.of(offset, limit, Sort.by(Sort.Direction.ASC, "id")));
+        // The offset endpoint only returns the caller's own messages, the cursor history returns both directions
+        return chatMessageRepository.findAllByClientIdAndAgentIdAndIsSenderClient(clientId, recipientId, true,
+                PageRequest.of(offset, limit, Sort.by(Sort.Direction.ASC, "createdAt", "id")));
     }
 
     private Page<ChatMessage> processAgentMessages(long recipientId, Integer offset, Integer limit) {
-        Agent agent = agentService.findByEmail(agentAuthService.getAuthInfo().getEmail());
-        Client client = clientService.findById(recipientId);
+        Long agentId = currentPrincipal.getAgent().getId();
+
+        isThereMeeting(recipientId, agentId, false);
+
+        return chatMessageRepository.findAllByClientIdAndAgentIdAndIsSenderClient(recipientId, agentId, false,
+                PageRequest.of(offset, limit, Sort.by(Sort.Direction.ASC, "createdAt", "id")));
+    }
+
+    private Slice<ChatMessage> processClientHistory(long recipientId, ChatCursor cursor, int limit) {
+        clientService.isVerifiedClient();
 
-        isThereMeeting(client, agent);
+        Long clientId = currentPrincipal.getClient().getId();
 
-        return chatMessageRepository.findAllBySenderIdAndRecipientIdAndIsSenderClient(agent.getId(), client.getId(), false,
-                PageRequest.of(offset, limit, Sort.by(Sort.Direction.ASC, "id")));
+        isThereMeeting(clientId, recipientId, true);
+
+        return chatMessageRepository.findAllBefore(clientId, recipientId, cursor.createdAt(), cursor.id(), PageRequest.of(0, limit));
+    }
+
+    private Slice<ChatMessage> processAgentHistory(long recipientId, ChatCursor cursor, int limit) {
+        Long agentId = currentPrincipal.getAgent().getId();
+
+        isThereMeeting(recipientId, agentId, false);
+
+        return chatMessageRepository.findAllBefore(recipientId, agentId, cursor.createdAt(), cursor.id(), PageRequest.of(0, limit));
     }
 
     
@@ -99,8 +150,15 @@ public class ChatMessageService {
                 .orElseThrow(() -> new ResourceNotFoundException("Chat message with this id not found."));
     }
 
-    private void isThereMeeting(Client client, Agent agent) {
-        if (Boolean.FALSE.equals(meetingService.existsByAgentAndClient(agent, client))) {
+    // The recipient is only loaded when access is denied, to tell an unknown id apart from a missing meeting
+    private void isThereMeeting(Long clientId, Long agentId, boolean isClient) {
+        if (!meetingService.hasChatAccess(clientId, agentId)) {
+            if (isClient) {
+                agentService.findById(agentId);
+            } else {
+                clientService.findById(clientId);
+            }
+
             throw new ResourceForbiddenException("No access for chat.");
         }
     }
@@ -111,6 +169,8 @@ public class ChatMessageService {
                 .senderId(senderId)
                 .recipientId(recipientId)
                 .isSenderClient(isSenderClient)
+                .clientId(isSenderClient ? senderId : recipientId)
+                .agentId(isSenderClient ? recipientId : senderId)
                 .build();
     }
 
@@ -0,0 +1,307 @@
+package ru.halcyon.meetingease.service.chat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ru.halcyon.meetingease.config.ChatConfigProperties;
+import ru.halcyon.meetingease.model.ChatMessage;
+import ru.halcyon.meetingease.repository.ChatMessageRepository;
+import ru.halcyon.meetingease.util.Metrics;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@EnableConfigurationProperties(ChatConfigProperties.class)
+public class ChatMessageWriter {
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageIdAllocator idAllocator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean writeBehind;
+    private final ChatConfigProperties.WriteBehind properties;
+    private final BlockingQueue<PendingMessage> queue;
+    private final Set<Long> unconfirmedIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO chat_messages (id, created_at, content, sender_id, recipient_id, is_sender_client, client_id, agent_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    public ChatMessageWriter(
+            ChatMessageRepository chatMessageRepository,
+            ChatMessageIdAllocator idAllocator,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ChatConfigProperties chatConfigProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.idAllocator = idAllocator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.writeBehind = chatConfigProperties.getWriteMode() == ChatConfigProperties.WriteMode.WRITE_BEHIND;
+        this.properties = chatConfigProperties.getWriteBehind();
+        this.queue = new ArrayBlockingQueue<>(properties.getMaxQueueSize());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!writeBehind) {
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::run, "chat-message-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+
+        running = false;
+        worker.join(properties.getFlushTimeout().toMillis());
+
+        // Whatever the worker did not manage to drain in time is written by the stopping thread
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        write(remaining);
+    }
+
+    public ChatMessage write(ChatMessage message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean success = false;
+
+        try {
+            ChatMessage written = writeBehind ? enqueueMessage(message) : chatMessageRepository.save(message);
+            success = true;
+
+            return written;
+        } finally {
+            sample.stop(meterRegistry.timer("meetingease.chat.save",
+                    Metrics.TYPE, writeBehind ? "write-behind" : "direct", Metrics.OUTCOME, Metrics.outcome(success)));
+        }
+    }
+
+    // Returns once every message queued before the call has been written
+    public void flush() {
+        if (writeBehind) {
+            await(enqueue(null));
+        }
+    }
+
+    // False while a flush-durability write that timed out is still pending
+    public boolean isWritten(ChatMessage message) {
+        return !unconfirmedIds.contains(message.getId());
+    }
+
+    // Messages created after this may still be queued on some node, so history pages stop short of them.
+    // Writes are expected to land within the flush timeout; one queued for longer can be skipped by a page read meanwhile
+    public Optional<Instant> getHistoryWatermark() {
+        return writeBehind ? Optional.of(Instant.now().minus(properties.getFlushTimeout())) : Optional.empty();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    private ChatMessage enqueueMessage(ChatMessage message) {
+        // The message is complete before it is queued, so it can be acknowledged and delivered right away
+        message.setId(idAllocator.nextId());
+        message.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+
+        CompletableFuture<Void> written = enqueue(message);
+
+        if (properties.getDurability() == ChatConfigProperties.Durability.FLUSH && !awaitWritten(written)) {
+            // The insert may still commit, so the caller gets the id rather than an error that a retry would duplicate
+            Long id = message.getId();
+            unconfirmedIds.add(id);
+            written.whenComplete((result, ex) -> unconfirmedIds.remove(id));
+
+            log.warn("Chat message {} was not written within {}, acknowledging it as pending", id, properties.getFlushTimeout());
+        }
+
+        return message;
+    }
+
+    private CompletableFuture<Void> enqueue(ChatMessage message) {
+        PendingMessage pending = new PendingMessage(message, new CompletableFuture<>());
+
+        try {
+            if (!queue.offer(pending, properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS)) {
+                rejectedCount.incrementAndGet();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Chat is busy. Please try again later.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sending the message was interrupted.");
+        }
+
+        return pending.written();
+    }
+
+    private void await(CompletableFuture<Void> written) {
+        if (!awaitWritten(written)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Message could not be saved. Please try again later.");
+        }
+    }
+
+    // Returns false when the write is still pending after the flush timeout
+    private boolean awaitWritten(CompletableFuture<Void> written) {
+        try {
+            written.get(properties.getFlushTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sending the message was interrupted.");
+        } catch (ExecutionException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Message could not be saved. Please try again later.");
+        } catch (TimeoutException ex) {
+            return false;
+        }
+    }
+
+    private void run() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        List<PendingMessage> batch = new ArrayList<>(properties.getBatchSize());
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+
+                // Linger for up to one flush interval so bursts leave in full batches
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remainingNanos <= 0) {
+                        break;
+                    }
+
+                    PendingMessage next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                running = false;
+            }
+
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<PendingMessage> batch) {
+        List<PendingMessage> messages = batch.stream()
+                .filter(pending -> pending.message() != null)
+                .toList();
+
+        if (!messages.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(messages.stream().map(PendingMessage::message).toList()));
+
+                writtenCount.addAndGet(messages.size());
+                batchCount.incrementAndGet();
+                messages.forEach(pending -> pending.written().complete(null));
+            } catch (RuntimeException ex) {
+                // One bad row rolls back the whole batch, so the rest are written on their own
+                log.warn("Failed to write a batch of {} chat messages, retrying them one at a time: {}", messages.size(), ex.getMessage());
+                messages.forEach(this::writeSingle);
+            }
+        }
+
+        // Flush markers complete once everything queued before them has been attempted
+        batch.stream()
+                .filter(pending -> pending.message() == null)
+                .forEach(pending -> pending.written().complete(null));
+    }
+
+    private void writeSingle(PendingMessage pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(List.of(pending.message())));
+
+            writtenCount.incrementAndGet();
+            pending.written().complete(null);
+        } catch (RuntimeException ex) {
+            failedCount.incrementAndGet();
+            log.error("Failed to write chat message {}", pending.message().getId(), ex);
+
+            pending.written().completeExceptionally(ex);
+        }
+    }
+
+    private void insert(List<ChatMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (statement, message) -> {
+            statement.setLong(1, message.getId());
+            statement.setObject(2, message.getCreatedAt().atOffset(ZoneOffset.UTC), Types.TIMESTAMP_WITH_TIMEZONE);
+            statement.setString(3, message.getContent());
+            statement.setLong(4, message.getSenderId());
+            statement.setLong(5, message.getRecipientId());
+            statement.setBoolean(6, message.getIsSenderClient());
+            statement.setLong(7, message.getClientId());
+            statement.setLong(8, message.getAgentId());
+        });
+    }
+
+    private record PendingMessage(ChatMessage message, CompletableFuture<Void> written) {
+    }
+}
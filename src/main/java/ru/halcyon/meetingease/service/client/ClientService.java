@@ -1,7 +1,6 @@
 package ru.halcyon.meetingease.service.client;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -12,8 +11,7 @@ import ru.halcyon.meetingease.exception.ResourceNotFoundException;
 import ru.halcyon.meetingease.exception.InvalidCredentialsException;
 import ru.halcyon.meetingease.model.Client;
 import ru.halcyon.meetingease.repository.ClientRepository;
-import ru.halcyon.meetingease.security.AuthenticatedDataProvider;
-import ru.halcyon.meetingease.security.JwtAuthentication;
+import ru.halcyon.meetingease.security.CurrentPrincipal;
 import ru.halcyon.meetingease.service.auth.TokenRevocationService;
 import ru.halcyon.meetingease.service.file.FileStorageService;
 import ru.halcyon.meetingease.support.Role;
@@ -25,7 +23,7 @@ public class ClientService {
 
     private final FileStorageService fileStorageService;
     private final PasswordEncoder passwordEncoder;
-    private final AuthenticatedDataProvider authenticatedDataProvider;
+    private final CurrentPrincipal currentPrincipal;
     private final TokenRevocationService tokenRevocationService;
 
     public Client save(Client client) {
@@ -47,7 +45,7 @@ public class ClientService {
     }
 
     public Client resetPassword(ResetPasswordRequestDto dto) {
-        Client client = findByEmail(authenticatedDataProvider.getEmail());
+        Client client = currentPrincipal.getClient();
 
         if (!passwordEncoder.matches(dto.getCurrentPassword(), client.getPassword())) {
             throw new InvalidCredentialsException("Invalid login credentials provided.");
@@ -60,12 +58,11 @@ public class ClientService {
     }
 
     public void isVerifiedClient() {
-        boolean isClient = getAuthInfo().isClient();
-        if (!isClient) {
+        if (!currentPrincipal.isClient()) {
             throw new ResourceForbiddenException("This feature is not allowed for agents");
         }
 
-        Client client = findByEmail(getAuthInfo().getEmail());
+        Client client = currentPrincipal.getClient();
 
         if (Boolean.FALSE.equals(client.getIsVerified())) {
             throw new ResourceForbiddenException("This feature is not allowed for unverified users. Please confirm your email.");
@@ -73,7 +70,7 @@ public class ClientService {
     }
 
     public Client uploadPhoto(MultipartFile file) {
-        Client client = findByEmail(getAuthInfo().getEmail());
+        Client client = currentPrincipal.getClient();
         String filepath = fileStorageService.storeImage(file);
         client.setPhoto(filepath);
 
@@ -81,7 +78,7 @@ public class ClientService {
     }
 
     public Client updateData(ClientUpdateDto dto) {
-        Client client = findByEmail(getAuthInfo().getEmail());
+        Client client = currentPrincipal.getClient();
 
         if (!dto.getName().isEmpty()) {
             client.setName(dto.getName());
@@ -108,7 +105,7 @@ public class ClientService {
     }
 
     public Client updateRole(Long clientId, Role role) {
-        Client client = findByEmail(getAuthInfo().getEmail());
+        Client client = currentPrincipal.getClient();
         Client clientToUpdate = findById(clientId);
 
         isCompanyAdmin(client, clientToUpdate);
@@ -121,10 +118,6 @@ public class ClientService {
         tokenRevocationService.revoke();
     }
 
-    private JwtAuthentication getAuthInfo() {
-        return (JwtAuthentication) SecurityContextHolder.getContext().getAuthentication();
-    }
-
     private void isCompanyAdmin(Client client, Client clientToUpdate) {
         if (client.getRole() == Role.USER || !clientToUpdate.getCompany().equals(client.getCompany())) {
             throw new ResourceForbiddenException("You don't have the rights to update data for this client.");
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.env.PropertyResolver;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import ru.halcyon.meetingease.dto.CompanyCreateDto;
 import ru.halcyon.meetingease.exception.ResourceAlreadyExistsException;
@@ -11,7 +12,7 @@ import ru.halcyon.meetingease.exception.ResourceForbiddenException;
 import ru.halcyon.meetingease.exception.ResourceNotFoundException;
 import ru.halcyon.meetingease.model.Client;
 import ru.halcyon.meetingease.model.Company;
-import ru.halcyon.meetingease.security.AuthenticatedDataProvider;
+import ru.halcyon.meetingease.security.CurrentPrincipal;
 import ru.halcyon.meetingease.service.auth.ClientAuthService;
 import ru.halcyon.meetingease.service.client.ClientService;
 import ru.halcyon.meetingease.support.Role;
@@ -26,13 +27,14 @@ public class CompanyService {
 
     private final ClientAuthService clientAuthService;
     private final ClientService clientService;
-    private final AuthenticatedDataProvider authenticatedDataProvider;
+    private final CurrentPrincipal currentPrincipal;
 
+    @Transactional
     public Company create(CompanyCreateDto dto) {
         clientService.isVerifiedClient();
         isUniqueName(dto.getName());
 
-        Client owner = clientService.findByEmail(authenticatedDataProvider.getEmail());
+        Client owner = currentPrincipal.getClient();
 
         if (owner.getCompany() != null) {
             throw new ResourceAlreadyExistsException("You already have company.");
@@ -54,6 +56,7 @@ public class CompanyService {
         return company;
     }
 
+    @Transactional
     public Company addClient(Long companyId, String email) {
         Company company = findById(companyId);
 
@@ -74,6 +77,7 @@ public class CompanyService {
         return companyRepository.save(company);
     }
 
+    @Transactional
     public Company removeClient(Long companyId, String email) {
         Company company = findById(companyId);
 
@@ -104,6 +108,7 @@ public class CompanyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Company with this name not found."));
     }
     
+    @Transactional
     public Company updateDescription(Long companyId, String description) {
         Company company = findById(companyId);
 
@@ -115,6 +120,7 @@ public class CompanyService {
         return companyRepository.save(company);
     }
 
+    @Transactional
     public String delete(Long companyId) {
         Company company = findById(companyId);
 
@@ -137,7 +143,7 @@ public class CompanyService {
     }
 
     private void isAdmin(Company company) {
-        Client client = clientService.findByEmail(authenticatedDataProvider.getEmail());
+        Client client = currentPrincipal.getClient();
 
         if (client.getRole() == Role.USER || !company.equals(client.getCompany())) {
             throw new ResourceForbiddenException("No access for this company.");
@@ -1,11 +1,15 @@
 package ru.halcyon.meetingease.service.mail;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import ru.halcyon.meetingease.aspect.Sensitive;
 import ru.halcyon.meetingease.util.EmailUtil;
+import ru.halcyon.meetingease.util.Metrics;
 
 @Service
 @RequiredArgsConstructor
@@ -14,14 +18,23 @@ public class MailService {
     private String fromEmail;
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
-    public void sendSimpleVerificationMailMessage(String name, String to, String token) {
+    public void sendSimpleVerificationMailMessage(String name, String to, @Sensitive String token) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setSubject("New User Account Verification");
         message.setFrom(fromEmail);
         message.setTo(to);
         message.setText(EmailUtil.getVerificationEmailMessage(name, "http://localhost:8080", token));
 
-        mailSender.send(message);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean success = false;
+
+        try {
+            mailSender.send(message);
+            success = true;
+        } finally {
+            sample.stop(meterRegistry.timer("meetingease.mail.send", Metrics.TYPE, "verification", Metrics.OUTCOME, Metrics.outcome(success)));
+        }
     }
 }
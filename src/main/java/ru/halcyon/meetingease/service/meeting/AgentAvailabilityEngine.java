@@ -0,0 +1,14 @@
+package ru.halcyon.meetingease.service.meeting;
+
+import ru.halcyon.meetingease.model.Meeting;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface AgentAvailabilityEngine {
+    Optional<Long> findFreeAgentId(String city, Instant date);
+
+    void book(Meeting meeting);
+
+    void release(Meeting meeting);
+}
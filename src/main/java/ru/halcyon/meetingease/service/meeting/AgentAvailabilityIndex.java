@@ -0,0 +1,260 @@
+package ru.halcyon.meetingease.service.meeting;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.halcyon.meetingease.model.Agent;
+import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.repository.MeetingRepository;
+import ru.halcyon.meetingease.repository.projection.AgentBooking;
+import ru.halcyon.meetingease.service.agent.AgentService;
+import ru.halcyon.meetingease.support.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Component
+@ConditionalOnProperty(name = "meeting.availability.engine", havingValue = "index", matchIfMissing = true)
+public class AgentAvailabilityIndex implements AgentAvailabilityEngine {
+    private final AgentService agentService;
+    private final MeetingRepository meetingRepository;
+    private final Duration reloadInterval;
+
+    private final ConcurrentMap<String, CityIndex> cities = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CityLoad> loads = new ConcurrentHashMap<>();
+
+    public static final Duration MEETING_DURATION = Duration.ofHours(1);
+
+    public AgentAvailabilityIndex(
+            AgentService agentService,
+            MeetingRepository meetingRepository,
+            @Value("${meeting.availability.index.reload-interval:5m}") Duration reloadInterval
+    ) {
+        this.agentService = agentService;
+        this.meetingRepository = meetingRepository;
+        this.reloadInterval = reloadInterval;
+    }
+
+    @Override
+    public Optional<Long> findFreeAgentId(String city, Instant date) {
+        Optional<Long> agentId = findConfirmedFreeAgentId(getCityIndex(city), date);
+
+        if (agentId.isPresent()) {
+            return agentId;
+        }
+
+        CityIndex cityIndex = cities.get(city);
+
+        // The index may miss changes made by other nodes or outside this service, so reload it before giving up,
+        // but at most once per reload interval so a fully booked city doesn't hit the database on every request
+        if (cityIndex != null && cityIndex.reloadedOnMiss) {
+            return Optional.empty();
+        }
+
+        return findConfirmedFreeAgentId(loadCityIndex(city, true), date);
+    }
+
+    @Override
+    public void book(Meeting meeting) {
+        if (meeting.getStatus() == Status.IN_WAITING) {
+            runAfterCommit(() -> update(meeting, true));
+        }
+    }
+
+    @Override
+    public void release(Meeting meeting) {
+        runAfterCommit(() -> update(meeting, false));
+    }
+
+    private void update(Meeting meeting, boolean isBooked) {
+        Agent agent = meeting.getAgent();
+
+        if (agent == null) {
+            return;
+        }
+
+        BookingUpdate update = new BookingUpdate(agent.getId(), new Booking(meeting.getDate(), meeting.getId()), isBooked);
+
+        // Updates share the per-city lock with the index swap, so an update made while a reload reads the database
+        // is either applied to the index being replaced and replayed into the new one, or applied to the new one
+        cities.compute(agent.getCity(), (city, cityIndex) -> {
+            if (cityIndex != null) {
+                update.applyTo(cityIndex);
+            }
+
+            CityLoad load = loads.get(city);
+            if (load != null) {
+                load.updates.add(update);
+            }
+
+            return cityIndex;
+        });
+    }
+
+    private CityIndex getCityIndex(String city) {
+        CityIndex cityIndex = cities.get(city);
+
+        if (cityIndex != null && !cityIndex.isStale(reloadInterval)) {
+            return cityIndex;
+        }
+
+        return loadCityIndex(city, false);
+    }
+
+    // The database is read outside the map lock; concurrent loads of the same city wait for the one already running
+    private CityIndex loadCityIndex(String city, boolean reloadedOnMiss) {
+        CityLoad load = new CityLoad();
+        CityLoad running = loads.putIfAbsent(city, load);
+
+        if (running != null) {
+            return running.result.join();
+        }
+
+        try {
+            CityIndex loaded = readCityIndex(city, reloadedOnMiss);
+
+            CityIndex cityIndex = cities.compute(city, (key, current) -> {
+                load.updates.forEach(update -> update.applyTo(loaded));
+                return loaded;
+            });
+
+            load.result.complete(cityIndex);
+            return cityIndex;
+        } catch (RuntimeException ex) {
+            load.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(city, load);
+        }
+    }
+
+    // An agent booked behind the index's back is skipped rather than ending the search, so one stale entry
+    // doesn't make the whole city look unavailable until the next reload
+    private Optional<Long> findConfirmedFreeAgentId(CityIndex cityIndex, Instant date) {
+        for (Long agentId: cityIndex.agentIds) {
+            if (cityIndex.isFree(agentId, date) && isConfirmedFree(agentId, date)) {
+                return Optional.of(agentId);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private boolean isConfirmedFree(Long agentId, Instant date) {
+        return !meetingRepository.existsByAgentIdAndStatusAndDateBetween(agentId, Status.IN_WAITING, date.minus(MEETING_DURATION), date);
+    }
+
+    private CityIndex readCityIndex(String city, boolean reloadedOnMiss) {
+        // Agents rarely change city, so only the bookings are read from the database on every reload
+        List<Long> agentIds = agentService.findAllIdsByCity(city);
+        Map<Long, NavigableSet<Booking>> bookings = new HashMap<>();
+
+        for (Long agentId: agentIds) {
+            bookings.put(agentId, new ConcurrentSkipListSet<>());
+        }
+
+        for (AgentBooking agentBooking: meetingRepository.findAllBookingsByAgentCityAndStatus(city, Status.IN_WAITING)) {
+            NavigableSet<Booking> agentBookings = bookings.get(agentBooking.getAgentId());
+
+            if (agentBookings != null) {
+                agentBookings.add(new Booking(agentBooking.getDate(), agentBooking.getMeetingId()));
+            }
+        }
+
+        return new CityIndex(agentIds, bookings, System.currentTimeMillis(), reloadedOnMiss);
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class CityIndex {
+        private final List<Long> agentIds;
+        private final Map<Long, NavigableSet<Booking>> bookings;
+        private final long loadedAt;
+        private final boolean reloadedOnMiss;
+
+        private CityIndex(List<Long> agentIds, Map<Long, NavigableSet<Booking>> bookings, long loadedAt, boolean reloadedOnMiss) {
+            this.agentIds = agentIds;
+            this.bookings = bookings;
+            this.loadedAt = loadedAt;
+            this.reloadedOnMiss = reloadedOnMiss;
+        }
+
+        private boolean isFree(Long agentId, Instant date) {
+            // An agent is busy when one of their meetings starts within the hour before the requested date
+            Booking earliestConflict = bookings.get(agentId).ceiling(new Booking(date.minus(MEETING_DURATION), Long.MIN_VALUE));
+            return earliestConflict == null || earliestConflict.date.isAfter(date);
+        }
+
+        private boolean isStale(Duration reloadInterval) {
+            return System.currentTimeMillis() - loadedAt > reloadInterval.toMillis();
+        }
+    }
+
+    private static final class CityLoad {
+        private final CompletableFuture<CityIndex> result = new CompletableFuture<>();
+        private final Queue<BookingUpdate> updates = new ConcurrentLinkedQueue<>();
+    }
+
+    private record BookingUpdate(Long agentId, Booking booking, boolean isBooked) {
+        private void applyTo(CityIndex cityIndex) {
+            NavigableSet<Booking> bookings = cityIndex.bookings.get(agentId);
+
+            if (bookings != null) {
+                if (isBooked) {
+                    bookings.add(booking);
+                } else {
+                    bookings.remove(booking);
+                }
+            }
+        }
+    }
+
+    private static final class Booking implements Comparable<Booking> {
+        private final Instant date;
+        private final long meetingId;
+
+        private Booking(Instant date, long meetingId) {
+            this.date = date;
+            this.meetingId = meetingId;
+        }
+
+        @Override
+        public int compareTo(Booking other) {
+            int dateComparison = date.compareTo(other.date);
+            return dateComparison != 0 ? dateComparison : Long.compare(meetingId, other.meetingId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Booking booking = (Booking) o;
+            return meetingId == booking.meetingId && Objects.equals(date, booking.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, meetingId);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.halcyon.meetingease.service.meeting;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.util.ExpiringCache;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Component
+public class ChatAccessCache {
+    private final ExpiringCache<String, Boolean> decisions;
+    private final Duration timeToLive;
+
+    public ChatAccessCache(
+            @Value("${meeting.chat-access.cache.max-size:10000}") int maxSize,
+            @Value("${meeting.chat-access.cache.time-to-live:30s}") Duration timeToLive
+    ) {
+        this.decisions = new ExpiringCache<>(maxSize);
+        this.timeToLive = timeToLive;
+    }
+
+    // Only granted access is cached: a denial would hide a meeting created on another node until the entry expires
+    public boolean isAllowed(Long clientId, Long agentId) {
+        return decisions.get(getKey(clientId, agentId)).isPresent();
+    }
+
+    public void allow(Long clientId, Long agentId) {
+        decisions.put(getKey(clientId, agentId), Boolean.TRUE, Instant.now().plus(timeToLive));
+    }
+
+    public void invalidate(Meeting meeting) {
+        Long agentId = meeting.getAgent().getId();
+        Iterable<Client> clients = meeting.getClients();
+
+        // Dropped once more after commit so a lookup racing the transaction cannot keep the old decision
+        invalidate(agentId, clients);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(agentId, clients);
+                }
+            });
+        }
+    }
+
+    public long getHitCount() {
+        return decisions.getHitCount();
+    }
+
+    public long getMissCount() {
+        return decisions.getMissCount();
+    }
+
+    private void invalidate(Long agentId, Iterable<Client> clients) {
+        for (Client client : clients) {
+            decisions.invalidate(getKey(client.getId(), agentId));
+        }
+    }
+
+    private String getKey(Long clientId, Long agentId) {
+        return clientId + ":" + agentId;
+    }
+}
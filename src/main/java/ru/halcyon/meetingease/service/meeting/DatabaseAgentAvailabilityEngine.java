@@ -0,0 +1,51 @@
+package ru.halcyon.meetingease.service.meeting;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.repository.AgentRepository;
+import ru.halcyon.meetingease.repository.MeetingRepository;
+import ru.halcyon.meetingease.support.Status;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "meeting.availability.engine", havingValue = "database")
+public class DatabaseAgentAvailabilityEngine implements AgentAvailabilityEngine {
+    private final AgentRepository agentRepository;
+    private final MeetingRepository meetingRepository;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Override
+    public Optional<Long> findFreeAgentId(String city, Instant date) {
+        Instant from = date.minus(AgentAvailabilityIndex.MEETING_DURATION);
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Optional<Long> agentId = agentRepository.lockFirstFreeIdByCity(city, from, date);
+
+            if (agentId.isEmpty()) {
+                return Optional.empty();
+            }
+
+            // The lock is held until commit, so a fresh check sees every booking committed before it was taken.
+            // When the agent turned out to be booked meanwhile, the next attempt's query sees that booking and moves on
+            if (!meetingRepository.existsByAgentIdAndStatusAndDateBetween(agentId.get(), Status.IN_WAITING, from, date)) {
+                return agentId;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public void book(Meeting meeting) {
+    }
+
+    @Override
+    public void release(Meeting meeting) {
+    }
+}
@@ -1,7 +1,11 @@
 package ru.halcyon.meetingease.service.meeting;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.halcyon.meetingease.api.osm.OSMNominatiumAPI;
 import ru.halcyon.meetingease.dto.MeetingCreateDto;
 import ru.halcyon.meetingease.exception.ResourceForbiddenException;
@@ -11,15 +15,19 @@ import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.model.Client;
 import ru.halcyon.meetingease.model.Deal;
 import ru.halcyon.meetingease.model.Meeting;
-import ru.halcyon.meetingease.security.AuthenticatedDataProvider;
+import ru.halcyon.meetingease.security.CurrentPrincipal;
 import ru.halcyon.meetingease.service.agent.AgentService;
 import ru.halcyon.meetingease.service.auth.ClientAuthService;
 import ru.halcyon.meetingease.service.client.ClientService;
 import ru.halcyon.meetingease.support.Address;
+import ru.halcyon.meetingease.support.DealSnapshot;
 import ru.halcyon.meetingease.support.Role;
 import ru.halcyon.meetingease.support.Status;
 import ru.halcyon.meetingease.repository.DealRepository;
 import ru.halcyon.meetingease.repository.MeetingRepository;
+import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
+import ru.halcyon.meetingease.util.Metrics;
 
 import java.time.*;
 import java.util.*;
@@ -33,19 +41,26 @@ public class MeetingService {
     private final ClientAuthService clientAuthService;
     private final ClientService clientService;
     private final AgentService agentService;
-    private final AuthenticatedDataProvider authenticatedDataProvider;
+    private final CurrentPrincipal currentPrincipal;
+    private final AgentAvailabilityEngine agentAvailabilityEngine;
+    private final ChatAccessCache chatAccessCache;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
     private final OSMNominatiumAPI osmNominatiumAPI;
 
+    private static final Duration DEAL_CACHE_TIME_TO_LIVE = Duration.ofHours(1);
+
     public Meeting create(MeetingCreateDto dto) {
         clientService.isVerifiedClient();
-        Client client = clientService.findByEmail(authenticatedDataProvider.getEmail());
+        Client client = currentPrincipal.getClient();
 
         if (client.getRole() == Role.USER) {
             throw new ResourceForbiddenException("You don't have the rights to create a meeting.");
         }
 
-        if (findAllScheduledMeetings().size() > 10) {
+        if (meetingRepository.countByStatusAndClientsContaining(Status.IN_WAITING, client) > 10) {
             throw new InvalidCredentialsException("You have exceeded the limit for creating meetings. Maximum number of meetings: 10");
         }
 
@@ -56,41 +71,59 @@ public class MeetingService {
 
         Deal deal = findDealByType(dto.getDealType());
         Address address = osmNominatiumAPI.getCorrectAddress(dto.getCity(), dto.getStreet(), dto.getHouseNumber());
-        Optional<Agent> freeAgent = getFreeAgent(dto.getDate(), address.getCity());
 
-        if (freeAgent.isEmpty()) {
-            throw new InvalidCredentialsException("Unfortunately, there are no agents available at the moment.");
-        }
+        // Only agent selection and the insert run in a transaction, so no connection is held during geocoding
+        return transactionTemplate.execute(status -> {
+            Optional<Agent> freeAgent = getFreeAgent(dto.getDate(), address.getCity());
 
-        Meeting meeting = Meeting.builder()
-                .date(dto.getDate())
-                .address(address.getDisplayName())
-                .agent(freeAgent.get())
-                .city(address.getCity())
-                .street(address.getStreet())
-                .houseNumber(address.getHouseNumber())
-                .deal(deal)
-                .clients(List.of(client))
-                .status(Status.IN_WAITING)
-                .build();
+            if (freeAgent.isEmpty()) {
+                throw new InvalidCredentialsException("Unfortunately, there are no agents available at the moment.");
+            }
 
-        return meetingRepository.save(meeting);
+            Meeting meeting = Meeting.builder()
+                    .date(dto.getDate())
+                    .address(address.getDisplayName())
+                    .agent(freeAgent.get())
+                    .city(address.getCity())
+                    .street(address.getStreet())
+                    .houseNumber(address.getHouseNumber())
+                    .deal(deal)
+                    .clients(List.of(client))
+                    .status(Status.IN_WAITING)
+                    .build();
+
+            meeting = meetingRepository.save(meeting);
+            agentAvailabilityEngine.book(meeting);
+            chatAccessCache.invalidate(meeting);
+
+            return meeting;
+        });
     }
 
+    @Transactional
     public Meeting cancel(Long meetingId) {
         Meeting meeting = findById(meetingId);
         isCompanyAdmin(meeting);
         meeting.setStatus(Status.CANCELLED);
 
-        return meetingRepository.save(meeting);
+        meeting = meetingRepository.save(meeting);
+        agentAvailabilityEngine.release(meeting);
+        chatAccessCache.invalidate(meeting);
+
+        return meeting;
     }
 
+    @Transactional
     public Meeting complete(Long meetingId) {
         Meeting meeting = findById(meetingId);
         isCompanyAdmin(meeting);
         meeting.setStatus(Status.COMPLETED);
 
-        return meetingRepository.save(meeting);
+        meeting = meetingRepository.save(meeting);
+        agentAvailabilityEngine.release(meeting);
+        chatAccessCache.invalidate(meeting);
+
+        return meeting;
     }
 
     public Meeting changeStreet(Long meetingId, String street) {
@@ -103,7 +136,7 @@ public class MeetingService {
         meeting.setAddress(address.getDisplayName());
         meeting.setStreet(address.getStreet());
 
-        return meetingRepository.save(meeting);
+        return saveDetached(meeting);
     }
 
     public Meeting changeHouseNumber(Long meetingId, String houseNumber) {
@@ -116,9 +149,10 @@ public class MeetingService {
         meeting.setAddress(address.getDisplayName());
         meeting.setHouseNumber(address.getHouseNumber());
 
-        return meetingRepository.save(meeting);
+        return saveDetached(meeting);
     }
 
+    @Transactional
     public Meeting changeDeal(Long meetingId, String dealType) {
         clientService.isVerifiedClient();
         Meeting meeting = findById(meetingId);
@@ -137,7 +171,7 @@ public class MeetingService {
 
     public List<Meeting> findAllScheduledMeetings() {
         clientService.isVerifiedClient();
-        Client client = clientService.findByEmail(authenticatedDataProvider.getEmail());
+        Client client = currentPrincipal.getClient();
 
         return meetingRepository.findAllByStatusAndClientsContaining(Status.IN_WAITING, client);
     }
@@ -204,48 +238,52 @@ public class MeetingService {
         return dates;
     }
 
-    public Boolean existsByAgentAndClient(Agent agent, Client client) {
-        return meetingRepository.existsByAgentAndClientsContainingAndStatus(agent, client, Status.IN_WAITING);
+    public boolean hasChatAccess(Long clientId, Long agentId) {
+        if (chatAccessCache.isAllowed(clientId, agentId)) {
+            return true;
+        }
+
+        boolean allowed = meetingRepository.existsByAgentIdAndClientsIdAndStatus(agentId, clientId, Status.IN_WAITING);
+        if (allowed) {
+            chatAccessCache.allow(clientId, agentId);
+        }
+
+        return allowed;
     }
 
     private String getTimeInStringFormat(int h, int m) {
         return h + ":" + (m < 10 ? "0" + m : m);
     }
 
-    private Optional<Agent> getFreeAgent(Instant date, String city) {
-        List<Agent> agents = agentService.findAllByCity(city);
-
-        for (Agent agent: agents) {
-            boolean isFree = true;
-
-             for (Meeting meeting: agent.getMeetings()) {
-                 if (date.compareTo(meeting.getDate()) >= 0 &&
-                        date.compareTo(meeting.getDate().plus(Duration.ofHours(1))) <= 0) {
-                     isFree = false;
-                     break;
-                }
-             }
-
-             if (!isFree) {
-                 continue;
-             }
+    // Geocoding runs outside a transaction, so the fetched meeting is detached by now.
+    // The merged copy only holds lazy references, so the already loaded instance is returned instead
+    private Meeting saveDetached(Meeting meeting) {
+        meetingRepository.save(meeting);
+        return meeting;
+    }
 
-             return Optional.of(agent);
-        }
+    private Optional<Agent> getFreeAgent(Instant date, String city) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Optional<Agent> freeAgent = agentAvailabilityEngine.findFreeAgentId(city, date)
+                .map(agentService::findById);
+        sample.stop(meterRegistry.timer("meetingease.meeting.agent.selection", Metrics.RESULT, freeAgent.isPresent() ? "found" : "not_found"));
 
-        return Optional.empty();
+        return freeAgent;
     }
 
     private void isCompanyAdmin(Meeting meeting) {
-        Client client = clientService.findByEmail(authenticatedDataProvider.getEmail());
+        Client client = currentPrincipal.getClient();
 
         if (client.getRole() == Role.USER || !meeting.getClients().get(0).getCompany().equals(client.getCompany())) {
             throw new ResourceForbiddenException("You don't have the rights to change this meeting.");
         }
     }
 
+    // The meeting is returned after its transaction ends, so it gets a detached copy rather than a lazy reference
     private Deal findDealByType(String dealType) {
-        return dealRepository.findByType(dealType)
+        return cacheManager.fetchOrLoad(CacheNamespaces.DEALS, dealType, DEAL_CACHE_TIME_TO_LIVE,
+                        () -> dealRepository.findByType(dealType).map(DealSnapshot::of))
+                .map(DealSnapshot::toDeal)
                 .orElseThrow(() -> new ResourceNotFoundException("Deal with this type not found."));
     }
 }
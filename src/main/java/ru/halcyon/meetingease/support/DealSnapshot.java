@@ -0,0 +1,18 @@
+package ru.halcyon.meetingease.support;
+
+import ru.halcyon.meetingease.model.Deal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Immutable copy of a deal for the shared cache; every caller gets its own detached Deal from it
+public record DealSnapshot(Long id, String type, List<String> requiredDocuments) {
+    public static DealSnapshot of(Deal deal) {
+        List<String> documents = deal.getRequiredDocuments() != null ? List.copyOf(deal.getRequiredDocuments()) : null;
+        return new DealSnapshot(deal.getId(), deal.getType(), documents);
+    }
+
+    public Deal toDeal() {
+        return new Deal(id, type, requiredDocuments != null ? new ArrayList<>(requiredDocuments) : null, null);
+    }
+}
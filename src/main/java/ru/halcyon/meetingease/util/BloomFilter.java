@@ -0,0 +1,83 @@
+package ru.halcyon.meetingease.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        long optimalBitSize = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+
+        this.bitSize = Math.max(Long.SIZE, optimalBitSize);
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitSize + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    public void put(String value) {
+        long hash = fnv1a(value);
+        long firstHash = hash;
+        long secondHash = Long.rotateLeft(hash, 32) ^ mix(hash);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = Math.floorMod(firstHash + i * secondHash, bitSize);
+            setBit(bitIndex);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = fnv1a(value);
+        long firstHash = hash;
+        long secondHash = Long.rotateLeft(hash, 32) ^ mix(hash);
+
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = Math.floorMod(firstHash + i * secondHash, bitSize);
+
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void setBit(long bitIndex) {
+        int wordIndex = (int) (bitIndex >>> 6);
+        long mask = 1L << bitIndex;
+
+        long word;
+        do {
+            word = bits.get(wordIndex);
+
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(wordIndex, word, word | mask));
+    }
+
+    private static long fnv1a(String value) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (byte currentByte: value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= currentByte & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash | 1;
+    }
+}
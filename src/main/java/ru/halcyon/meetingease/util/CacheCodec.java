@@ -0,0 +1,43 @@
+package ru.halcyon.meetingease.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+
+import java.nio.charset.StandardCharsets;
+
+public interface CacheCodec<T> {
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    static CacheCodec<String> string() {
+        return new CacheCodec<>() {
+            @Override
+            public byte[] encode(String value) {
+                return value.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    static <T> CacheCodec<T> json(Class<T> type) {
+        return new JacksonCacheCodec<>(false, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    static <T> CacheCodec<T> json(TypeReference<T> type) {
+        return new JacksonCacheCodec<>(false, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    // Binary JSON: same data model, no quoting, length-prefixed strings and variable-length numbers
+    static <T> CacheCodec<T> smile(Class<T> type) {
+        return new JacksonCacheCodec<>(true, TypeFactory.defaultInstance().constructType(type));
+    }
+
+    static <T> CacheCodec<T> smile(TypeReference<T> type) {
+        return new JacksonCacheCodec<>(true, TypeFactory.defaultInstance().constructType(type));
+    }
+}
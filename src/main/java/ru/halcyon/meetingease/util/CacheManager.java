@@ -1,45 +1,256 @@
 package ru.halcyon.meetingease.util;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.config.CacheConfigProperties;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Supplier;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class CacheManager {
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final ObjectMapper objectMapper;
+@EnableConfigurationProperties(CacheConfigProperties.class)
+public class CacheManager implements MessageListener {
+    private final RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
 
-    public void save(String key, Object value, Duration timeToLive) {
-        redisTemplate.opsForValue().set(key, value, timeToLive);
-        log.info("Cached value with key '{}' for {} seconds", key, timeToLive);
+    private final Map<String, NearCache> nearCaches = new HashMap<>();
+    private final String nodeId = String.valueOf(UUID.randomUUID());
+
+    private static final byte[] EMPTY_VALUE = new byte[0];
+    private static final CacheCodec<Invalidation> INVALIDATION_CODEC = CacheCodec.json(Invalidation.class);
+
+    public static final String INVALIDATIONS_CHANNEL = "cache-invalidations";
+
+    public CacheManager(
+            RedisTemplate<String, byte[]> cacheRedisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            CacheConfigProperties cacheConfigProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.cacheRedisTemplate = cacheRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+
+        cacheConfigProperties.getNear().forEach((name, properties) ->
+                nearCaches.put(name, new NearCache(name, properties.getMaxSize(), properties.getTimeToLive())));
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!nearCaches.isEmpty()) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATIONS_CHANNEL));
+        }
+    }
+
+    public <T> void save(CacheNamespace<T> namespace, String id, T value, Duration timeToLive) {
+        cacheRedisTemplate.opsForValue().set(namespace.key(id), namespace.getCodec().encode(value), timeToLive);
+        putNear(namespace, Map.of(id, value));
+        log.debug("Cached {} entry for {}", namespace.getName(), timeToLive);
     }
 
-    public void save(String key, Duration timeToLive) {
-        redisTemplate.opsForValue().set(key, StringUtils.EMPTY, timeToLive);
-        log.info("Cached non with key '{}' for {} seconds", key, timeToLive);
+    // For namespaces where only the presence of the key matters
+    public void save(CacheNamespace<?> namespace, String id, Duration timeToLive) {
+        cacheRedisTemplate.opsForValue().set(namespace.key(id), EMPTY_VALUE, timeToLive);
+        putNear(namespace, Map.of(id, Boolean.TRUE));
+        log.debug("Cached {} marker for {}", namespace.getName(), timeToLive);
     }
 
-    public Boolean isPresent(String key) {
-        Object fetchedValue = redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(fetchedValue).isPresent();
+    public <T> void saveAll(CacheNamespace<T> namespace, Map<String, T> values, Duration timeToLive) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        Expiration expiration = Expiration.from(timeToLive);
+
+        cacheRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            values.forEach((id, value) -> connection.stringCommands().set(
+                    namespace.key(id).getBytes(StandardCharsets.UTF_8),
+                    namespace.getCodec().encode(value),
+                    expiration,
+                    RedisStringCommands.SetOption.upsert()
+            ));
+
+            return null;
+        });
+        putNear(namespace, values);
+        log.debug("Cached {} {} entries for {}", values.size(), namespace.getName(), timeToLive);
+    }
+
+    public void evict(CacheNamespace<?> namespace, String id) {
+        cacheRedisTemplate.delete(namespace.key(id));
+
+        NearCache nearCache = nearCaches.get(namespace.getName());
+        if (nearCache != null) {
+            nearCache.invalidate(List.of(id));
+            publishInvalidation(namespace, List.of(id));
+        }
+
+        log.debug("Evicted {} entry", namespace.getName());
     }
 
-    public <T> Optional<T> fetch(String key, Class<T> targetClass) {
-        Optional<Object> value = Optional.ofNullable(redisTemplate.opsForValue().get(key));
-        if (value.isEmpty()) {
-            log.info("No cached value found for key {}", key);
-            return Optional.empty();
+    public boolean exists(CacheNamespace<?> namespace, String id) {
+        NearCache nearCache = nearCaches.get(namespace.getName());
+        if (nearCache != null && nearCache.get(id).isPresent()) {
+            return true;
         }
-        T result = objectMapper.convertValue(value.get(), targetClass);
-        log.info("Fetched cached value with key {}", key);
-        return Optional.of(result);
+
+        List<String> keys = namespace.hasLegacyKeys()
+                ? List.of(namespace.key(id), namespace.legacyKey(id))
+                : List.of(namespace.key(id));
+
+        Long count = cacheRedisTemplate.countExistingKeys(keys);
+        boolean present = count != null && count > 0;
+        recordLookup(namespace, present);
+
+        return present;
+    }
+
+    public <T> Optional<T> fetch(CacheNamespace<T> namespace, String id) {
+        NearCache nearCache = nearCaches.get(namespace.getName());
+        if (nearCache != null) {
+            Optional<T> nearValue = nearCache.get(id);
+
+            if (nearValue.isPresent()) {
+                return nearValue;
+            }
+        }
+
+        byte[] value = cacheRedisTemplate.opsForValue().get(namespace.key(id));
+        Optional<T> result = Optional.ofNullable(value).map(namespace.getCodec()::decode);
+
+        if (result.isEmpty() && namespace.hasLegacyKeys()) {
+            result = Optional.ofNullable(cacheRedisTemplate.opsForValue().get(namespace.legacyKey(id)))
+                    .map(namespace.getLegacyCodec()::decode);
+        }
+
+        if (nearCache != null) {
+            result.ifPresent(found -> nearCache.put(id, found));
+        }
+
+        recordLookup(namespace, result.isPresent());
+        log.debug("Fetched {} entry: {}", namespace.getName(), result.isPresent() ? Metrics.HIT : Metrics.MISS);
+
+        return result;
+    }
+
+    // One round trip for the whole batch; ids without a cached value are absent from the result
+    public <T> Map<String, T> fetchAll(CacheNamespace<T> namespace, Collection<String> ids) {
+        NearCache nearCache = nearCaches.get(namespace.getName());
+        Map<String, T> result = new HashMap<>();
+        List<String> remainingIds = new ArrayList<>();
+
+        for (String id: ids) {
+            Optional<T> nearValue = nearCache != null ? nearCache.get(id) : Optional.empty();
+
+            if (nearValue.isPresent()) {
+                result.put(id, nearValue.get());
+            } else {
+                remainingIds.add(id);
+            }
+        }
+
+        if (remainingIds.isEmpty()) {
+            return result;
+        }
+
+        List<byte[]> values = cacheRedisTemplate.opsForValue().multiGet(remainingIds.stream().map(namespace::key).toList());
+
+        int hits = 0;
+        for (int i = 0; i < remainingIds.size() && values != null; i++) {
+            byte[] value = values.get(i);
+
+            if (value != null) {
+                T decoded = namespace.getCodec().decode(value);
+                result.put(remainingIds.get(i), decoded);
+                hits++;
+
+                if (nearCache != null) {
+                    nearCache.put(remainingIds.get(i), decoded);
+                }
+            }
+        }
+
+        meterRegistry.counter("meetingease.cache.requests", Metrics.CACHE, namespace.getName(), Metrics.RESULT, Metrics.HIT)
+                .increment(hits);
+        meterRegistry.counter("meetingease.cache.requests", Metrics.CACHE, namespace.getName(), Metrics.RESULT, Metrics.MISS)
+                .increment(remainingIds.size() - hits);
+
+        return result;
+    }
+
+    // Redis being unavailable only costs the cache, the value is still loaded
+    public <T> Optional<T> fetchOrLoad(CacheNamespace<T> namespace, String id, Duration timeToLive, Supplier<Optional<T>> loader) {
+        try {
+            Optional<T> cached = fetch(namespace, id);
+
+            if (cached.isPresent()) {
+                return cached;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to fetch {} entry from cache: {}", namespace.getName(), ex.getMessage());
+        }
+
+        Optional<T> loaded = loader.get();
+
+        loaded.ifPresent(value -> {
+            try {
+                save(namespace, id, value, timeToLive);
+            } catch (RuntimeException ex) {
+                log.warn("Failed to cache {} entry: {}", namespace.getName(), ex.getMessage());
+            }
+        });
+
+        return loaded;
+    }
+
+    public Collection<NearCache> getNearCaches() {
+        return Collections.unmodifiableCollection(nearCaches.values());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation = INVALIDATION_CODEC.decode(message.getBody());
+        NearCache nearCache = nearCaches.get(invalidation.cache());
+
+        if (nearCache != null && !nodeId.equals(invalidation.node())) {
+            nearCache.invalidate(invalidation.ids());
+        }
+    }
+
+    private void putNear(CacheNamespace<?> namespace, Map<String, ?> values) {
+        NearCache nearCache = nearCaches.get(namespace.getName());
+
+        if (nearCache != null) {
+            values.forEach(nearCache::put);
+            // Other nodes drop their copies and read the new value from Redis on the next lookup
+            publishInvalidation(namespace, values.keySet());
+        }
+    }
+
+    private void publishInvalidation(CacheNamespace<?> namespace, Collection<String> ids) {
+        Invalidation invalidation = new Invalidation(nodeId, namespace.getName(), List.copyOf(ids));
+        cacheRedisTemplate.convertAndSend(INVALIDATIONS_CHANNEL, INVALIDATION_CODEC.encode(invalidation));
+    }
+
+    private void recordLookup(CacheNamespace<?> namespace, boolean hit) {
+        meterRegistry.counter("meetingease.cache.requests", Metrics.CACHE, namespace.getName(), Metrics.RESULT, hit ? Metrics.HIT : Metrics.MISS).increment();
+    }
+
+    private record Invalidation(String node, String cache, List<String> ids) {
     }
 }
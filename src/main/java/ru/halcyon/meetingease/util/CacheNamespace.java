@@ -0,0 +1,37 @@
+package ru.halcyon.meetingease.util;
+
+import lombok.Getter;
+
+@Getter
+public class CacheNamespace<T> {
+    private final String name;
+    private final CacheCodec<T> codec;
+    private final CacheCodec<T> legacyCodec;
+
+    private CacheNamespace(String name, CacheCodec<T> codec, CacheCodec<T> legacyCodec) {
+        this.name = name;
+        this.codec = codec;
+        this.legacyCodec = legacyCodec;
+    }
+
+    public static <T> CacheNamespace<T> of(String name, CacheCodec<T> codec) {
+        return new CacheNamespace<>(name, codec, null);
+    }
+
+    // Entries written before namespaces existed used the bare id, JSON-quoted, as the key and JSON as the value
+    public static <T> CacheNamespace<T> withLegacyKeys(String name, CacheCodec<T> codec, Class<T> type) {
+        return new CacheNamespace<>(name, codec, CacheCodec.json(type));
+    }
+
+    public String key(String id) {
+        return name + ":" + id;
+    }
+
+    public String legacyKey(String id) {
+        return "\"" + id + "\"";
+    }
+
+    public boolean hasLegacyKeys() {
+        return legacyCodec != null;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.halcyon.meetingease.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import ru.halcyon.meetingease.support.Address;
+import ru.halcyon.meetingease.support.DealSnapshot;
+
+import java.util.List;
+
+public class CacheNamespaces {
+    private CacheNamespaces() {}
+
+    // Refresh token -> email of its owner
+    public static final CacheNamespace<String> REFRESH_TOKENS =
+            CacheNamespace.withLegacyKeys("refresh", CacheCodec.string(), String.class);
+
+    // Presence only: the jti of a revoked access token
+    public static final CacheNamespace<String> REVOKED_JTIS =
+            CacheNamespace.withLegacyKeys("revoked-jti", CacheCodec.string(), String.class);
+
+    public static final CacheNamespace<Address> GEOCODE =
+            CacheNamespace.of("geocode", CacheCodec.smile(Address.class));
+
+    // Deal type -> deal, without its meetings
+    public static final CacheNamespace<DealSnapshot> DEALS =
+            CacheNamespace.of("deal", CacheCodec.smile(DealSnapshot.class));
+
+    public static final CacheNamespace<List<Long>> AGENT_IDS_BY_CITY =
+            CacheNamespace.of("agent-ids-by-city", CacheCodec.smile(new TypeReference<List<Long>>() {}));
+}
@@ -0,0 +1,48 @@
+package ru.halcyon.meetingease.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.halcyon.meetingease.model.ChatMessage;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+// History is paged by creation time: ids come from per-node blocks, so they don't follow the order messages were sent in
+public record ChatCursor(Instant createdAt, long id) {
+    // Sorts after every stored message, used for the first page
+    public static final ChatCursor LATEST = new ChatCursor(Instant.parse("9999-12-31T00:00:00Z"), Long.MAX_VALUE);
+
+    public static ChatCursor of(ChatMessage message) {
+        return new ChatCursor(message.getCreatedAt(), message.getId());
+    }
+
+    public String encode() {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES * 2)
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, createdAt))
+                .putLong(id)
+                .array();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static ChatCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return LATEST;
+        }
+
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+
+            if (bytes.length != Long.BYTES * 2) {
+                throw new IllegalArgumentException();
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new ChatCursor(Instant.EPOCH.plus(buffer.getLong(), ChronoUnit.MICROS), buffer.getLong());
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.halcyon.meetingease.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Size-bounded cache where every entry carries its own expiration time
+public class ExpiringCache<K, V> {
+    private final Cache<K, Entry<V>> entries;
+
+    public ExpiringCache(int maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry<K, V>())
+                // Maintenance runs on the calling thread, so size and expiry are settled when a call returns
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<V> get(K key) {
+        return Optional.ofNullable(entries.getIfPresent(key)).map(Entry::value);
+    }
+
+    public void put(K key, V value, Instant expiresAt) {
+        if (expiresAt.isAfter(Instant.now())) {
+            entries.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return entries.stats().evictionCount();
+    }
+
+    private record Entry<V>(V value, Instant expiresAt) {
+    }
+
+    private static final class EntryExpiry<K, V> implements Expiry<K, Entry<V>> {
+        @Override
+        public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+            return remainingNanos(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return remainingNanos(entry);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(Entry<V> entry) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(entry.expiresAt().toEpochMilli() - System.currentTimeMillis()));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.halcyon.meetingease.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+class JacksonCacheCodec<T> implements CacheCodec<T> {
+    private static final ObjectMapper JSON_MAPPER = JsonMapper.builder().findAndAddModules().build();
+    private static final ObjectMapper SMILE_MAPPER = SmileMapper.builder().findAndAddModules().build();
+
+    // Every Smile document starts with this header, which is never valid JSON
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+
+    private final ObjectMapper writer;
+    private final JavaType type;
+
+    JacksonCacheCodec(boolean smile, JavaType type) {
+        this.writer = smile ? SMILE_MAPPER : JSON_MAPPER;
+        this.type = type;
+    }
+
+    @Override
+    public byte[] encode(T value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Both formats are read whatever this codec writes, so entries cached before a switch stay readable
+    @Override
+    public T decode(byte[] bytes) {
+        try {
+            return (isSmile(bytes) ? SMILE_MAPPER : JSON_MAPPER).readValue(bytes, type);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static boolean isSmile(byte[] bytes) {
+        if (bytes.length < SMILE_HEADER.length) {
+            return false;
+        }
+
+        for (int i = 0; i < SMILE_HEADER.length; i++) {
+            if (bytes[i] != SMILE_HEADER[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
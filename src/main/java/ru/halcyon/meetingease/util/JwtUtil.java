@@ -1,15 +1,15 @@
 package ru.halcyon.meetingease.util;
 
-import io.jsonwebtoken.Claims;
 import ru.halcyon.meetingease.security.JwtAuthentication;
+import ru.halcyon.meetingease.security.VerifiedAccessToken;
 
 public class JwtUtil {
     private JwtUtil() {}
 
-    public static JwtAuthentication getAuthentication(Claims claims) {
+    public static JwtAuthentication getAuthentication(VerifiedAccessToken token) {
         final JwtAuthentication jwtAuthInfo = new JwtAuthentication();
-        jwtAuthInfo.setEmail(claims.getSubject());
-        jwtAuthInfo.setClient((Boolean) claims.get("isClient"));
+        jwtAuthInfo.setEmail(token.getSubject());
+        jwtAuthInfo.setClient(token.isClient());
 
         return jwtAuthInfo;
     }
@@ -0,0 +1,22 @@
+package ru.halcyon.meetingease.util;
+
+public class Metrics {
+    private Metrics() {}
+
+    // Every meter is named meetingease.<area>.<what> and tagged with these keys where they apply
+    public static final String OUTCOME = "outcome";
+    public static final String CACHE = "cache";
+    public static final String RESULT = "result";
+    public static final String TYPE = "type";
+    public static final String CLASS = "class";
+    public static final String METHOD = "method";
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+
+    public static String outcome(boolean success) {
+        return success ? SUCCESS : ERROR;
+    }
+}
@@ -0,0 +1,56 @@
+package ru.halcyon.meetingease.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+// Values are shared between callers, so cached objects must not be modified
+public class NearCache {
+    private final String name;
+    private final Cache<String, Object> entries;
+
+    public NearCache(String name, int maxSize, Duration timeToLive) {
+        this.name = name;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> get(String id) {
+        return Optional.ofNullable((T) entries.getIfPresent(id));
+    }
+
+    public void put(String id, Object value) {
+        entries.put(id, value);
+    }
+
+    public void invalidate(Collection<String> ids) {
+        entries.invalidateAll(ids);
+    }
+
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return entries.stats().evictionCount();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+}
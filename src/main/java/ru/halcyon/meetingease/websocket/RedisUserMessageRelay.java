@@ -0,0 +1,86 @@
+package ru.halcyon.meetingease.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "redis")
+public class RedisUserMessageRelay implements UserMessageRelay, MessageListener {
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong receivedCount = new AtomicLong();
+
+    public static final String USER_MESSAGES_CHANNEL = "websocket-user-messages";
+
+    public RedisUserMessageRelay(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            SimpMessagingTemplate messagingTemplate,
+            ObjectMapper objectMapper
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(USER_MESSAGES_CHANNEL));
+    }
+
+    // Every node receives the message, the local broker only delivers it where the user has a session
+    @Override
+    public void sendToUser(String user, String destination, Object payload) {
+        try {
+            String body = objectMapper.writeValueAsString(new RelayedMessage(user, destination, objectMapper.valueToTree(payload)));
+            redisTemplate.convertAndSend(USER_MESSAGES_CHANNEL, body);
+            publishedCount.incrementAndGet();
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            throw new MessageConversionException("Failed to serialize a message for " + destination, ex);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            RelayedMessage relayed = objectMapper.readValue(message.getBody(), RelayedMessage.class);
+            receivedCount.incrementAndGet();
+
+            messagingTemplate.convertAndSendToUser(relayed.user(), relayed.destination(), relayed.payload());
+        } catch (IOException ex) {
+            log.warn("Skipping malformed relayed message", ex);
+        }
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.get();
+    }
+
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+
+    record RelayedMessage(String user, String destination, JsonNode payload) {
+    }
+}
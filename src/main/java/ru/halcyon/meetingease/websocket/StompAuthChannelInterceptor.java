@@ -0,0 +1,95 @@
+package ru.halcyon.meetingease.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ru.halcyon.meetingease.exception.ResourceNotFoundException;
+import ru.halcyon.meetingease.exception.TokenVerificationException;
+import ru.halcyon.meetingease.repository.AgentRepository;
+import ru.halcyon.meetingease.repository.ClientRepository;
+import ru.halcyon.meetingease.security.AccessTokenVerifier;
+import ru.halcyon.meetingease.security.JwtAuthentication;
+import ru.halcyon.meetingease.security.VerifiedAccessToken;
+import ru.halcyon.meetingease.service.auth.TokenRevocationService;
+
+import java.time.Instant;
+
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ExecutorChannelInterceptor {
+    private final AccessTokenVerifier accessTokenVerifier;
+    private final TokenRevocationService tokenRevocationService;
+    private final ClientRepository clientRepository;
+    private final AgentRepository agentRepository;
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        // The token is verified once; later frames reuse the principal the session was bound to
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader(AUTHORIZATION_HEADER)));
+        } else if (accessor.getUser() instanceof StompPrincipal principal) {
+            if (principal.getExpiration().isBefore(Instant.now())) {
+                throw new TokenVerificationException();
+            }
+
+            // A logout revokes the token the session was opened with, so frames that act for the user check it again
+            boolean isActing = accessor.getCommand() == StompCommand.SEND || accessor.getCommand() == StompCommand.SUBSCRIBE;
+            if (isActing && tokenRevocationService.isRevoked(principal.getJti())) {
+                throw new TokenVerificationException();
+            }
+        }
+
+        return message;
+    }
+
+    // Services resolve the current user from the security context, as they do for HTTP requests
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+
+        if (accessor != null && accessor.getUser() instanceof StompPrincipal principal) {
+            SecurityContextHolder.getContext().setAuthentication(new JwtAuthentication(true, principal.getEmail(), principal.isClient()));
+        }
+
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SecurityContextHolder.clearContext();
+    }
+
+    private StompPrincipal authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            throw new TokenVerificationException();
+        }
+
+        VerifiedAccessToken token = accessTokenVerifier.verify(authHeader.substring(BEARER_PREFIX.length()))
+                .filter(verifiedToken -> !tokenRevocationService.isRevoked(verifiedToken))
+                .orElseThrow(TokenVerificationException::new);
+
+        Long id = token.isClient()
+                ? clientRepository.findByEmail(token.getSubject())
+                        .orElseThrow(() -> new ResourceNotFoundException("Client with this email not found.")).getId()
+                : agentRepository.findByEmail(token.getSubject())
+                        .orElseThrow(() -> new ResourceNotFoundException("Agent with this email not found.")).getId();
+
+        return new StompPrincipal(id, token.getSubject(), token.isClient(), token.getExpiration(), token.getJti());
+    }
+}
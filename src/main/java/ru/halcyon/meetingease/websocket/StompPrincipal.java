@@ -0,0 +1,27 @@
+package ru.halcyon.meetingease.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class StompPrincipal implements Principal {
+    private final Long id;
+    private final String email;
+    private final boolean isClient;
+    private final Instant expiration;
+    private final String jti;
+
+    // Client and agent ids share a numeric space, so the user key carries the type
+    public static String userKey(boolean isClient, Long id) {
+        return (isClient ? "client:" : "agent:") + id;
+    }
+
+    @Override
+    public String getName() {
+        return userKey(isClient, id);
+    }
+}
@@ -0,0 +1,5 @@
+package ru.halcyon.meetingease.websocket;
+
+public interface UserMessageRelay {
+    void sendToUser(String user, String destination, Object payload);
+}
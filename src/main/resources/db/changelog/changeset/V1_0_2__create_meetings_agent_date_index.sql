@@ -0,0 +1,10 @@
+-- =========================================
+-- Description: Create partial index on active meetings by agent and date
+-- Author: Halcyon
+-- Date: 2026-10-18
+-- Version: V1.0.2
+-- =========================================
+
+CREATE INDEX IF NOT EXISTS idx_meetings_agent_id_date_in_waiting
+    ON meetings (agent_id, date)
+    WHERE status = 'IN_WAITING';
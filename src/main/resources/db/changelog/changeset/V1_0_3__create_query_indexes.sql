@@ -0,0 +1,24 @@
+-- =========================================
+-- Description: Create indexes for repository lookups
+-- Author: Halcyon
+-- Date: 2026-10-18
+-- Version: V1.0.3
+-- =========================================
+
+CREATE INDEX IF NOT EXISTS idx_meetings_city_status
+    ON meetings (city, status);
+
+CREATE INDEX IF NOT EXISTS idx_meetings_agent_id_status
+    ON meetings (agent_id, status);
+
+CREATE INDEX IF NOT EXISTS idx_meetings_clients_client_id
+    ON meetings_clients (client_id, meeting_id);
+
+CREATE INDEX IF NOT EXISTS idx_meetings_clients_meeting_id
+    ON meetings_clients (meeting_id);
+
+CREATE INDEX IF NOT EXISTS idx_agents_city
+    ON agents (city, id);
+
+CREATE INDEX IF NOT EXISTS idx_clients_company_id
+    ON clients (company_id);
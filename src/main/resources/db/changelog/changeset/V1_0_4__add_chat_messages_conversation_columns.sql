@@ -0,0 +1,20 @@
+-- =========================================
+-- Description: Add conversation participant columns to chat_messages
+-- Author: Halcyon
+-- Date: 2026-10-18
+-- Version: V1.0.4
+-- =========================================
+
+ALTER TABLE chat_messages ADD COLUMN IF NOT EXISTS client_id BIGINT;
+ALTER TABLE chat_messages ADD COLUMN IF NOT EXISTS agent_id BIGINT;
+
+UPDATE chat_messages
+SET client_id = CASE WHEN is_sender_client THEN sender_id ELSE recipient_id END,
+    agent_id = CASE WHEN is_sender_client THEN recipient_id ELSE sender_id END
+WHERE client_id IS NULL OR agent_id IS NULL;
+
+ALTER TABLE chat_messages ALTER COLUMN client_id SET NOT NULL;
+ALTER TABLE chat_messages ALTER COLUMN agent_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_conversation
+    ON chat_messages (client_id, agent_id, created_at, id);
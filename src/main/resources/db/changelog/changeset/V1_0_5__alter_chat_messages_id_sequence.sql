@@ -0,0 +1,8 @@
+-- =========================================
+-- Description: Let chat message ids be allocated in blocks of 50
+-- Author: Halcyon
+-- Date: 2026-10-18
+-- Version: V1.0.5
+-- =========================================
+
+ALTER SEQUENCE chat_messages_id_seq INCREMENT BY 50;
@@ -0,0 +1,73 @@
+package ru.halcyon.meetingease.api.osm;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NominatimStubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile String responseBody = "[]";
+    private volatile long responseDelayMillis;
+
+    public NominatimStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/search", exchange -> {
+            requestCount.incrementAndGet();
+            sleep(responseDelayMillis);
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public void respondWithAddress(String city, String road, String houseNumber, String displayName) {
+        responseBody = String.format(
+                "[{\"display_name\":\"%s\",\"address\":{\"region\":\"Приволжский федеральный округ\",\"city\":\"%s\",\"road\":\"%s\",\"house_number\":\"%s\"}}]",
+                displayName, city, road, houseNumber
+        );
+    }
+
+    public void setResponseDelay(Duration responseDelay) {
+        responseDelayMillis = responseDelay.toMillis();
+    }
+
+    public void respondWithNothing() {
+        responseBody = "[]";
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
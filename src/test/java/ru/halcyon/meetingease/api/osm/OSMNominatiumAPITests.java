@@ -0,0 +1,139 @@
+package ru.halcyon.meetingease.api.osm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.halcyon.meetingease.config.GeocodingConfigProperties;
+import ru.halcyon.meetingease.exception.InvalidCredentialsException;
+import ru.halcyon.meetingease.support.Address;
+import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OSMNominatiumAPITests {
+    private NominatimStubServer stubServer;
+    private CacheManager cacheManager;
+    private OSMNominatiumAPI osmNominatiumAPI;
+
+    private static final String DISPLAY_NAME = "12, Кремлёвская улица, Вахитовский район, Казань";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = new NominatimStubServer();
+        stubServer.respondWithAddress("Казань", "Кремлёвская улица", "12", DISPLAY_NAME);
+
+        // Behaves like the shared cache, including its near cache, for the lookups made in a test
+        Map<String, Address> cachedAddresses = new ConcurrentHashMap<>();
+        cacheManager = mock(CacheManager.class);
+        when(cacheManager.fetch(eq(CacheNamespaces.GEOCODE), anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(cachedAddresses.get(invocation.<String>getArgument(1))));
+        doAnswer(invocation -> cachedAddresses.put(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(cacheManager).save(eq(CacheNamespaces.GEOCODE), anyString(), any(Address.class), any(Duration.class));
+
+        osmNominatiumAPI = createApi();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.close();
+    }
+
+    @Test
+    void getCorrectAddress() {
+        Address address = osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "12");
+
+        assertThat(address.getCity()).isEqualTo("Казань");
+        assertThat(address.getStreet()).isEqualTo("Кремлёвская улица");
+        assertThat(address.getHouseNumber()).isEqualTo("12");
+        assertThat(address.getDisplayName()).isEqualTo(DISPLAY_NAME);
+        verify(cacheManager).save(eq(CacheNamespaces.GEOCODE), anyString(), any(Address.class), eq(Duration.ofDays(7)));
+    }
+
+    @Test
+    void getCorrectAddress_UsesCacheForNormalizedAddress() {
+        osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "12");
+        osmNominatiumAPI.getCorrectAddress(" Казань ", "Кремлевская", "12");
+
+        assertThat(stubServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getCorrectAddress_UsesSharedCache() {
+        Address cachedAddress = new Address("region", "Казань", "Кремлёвская улица", "12", DISPLAY_NAME);
+        when(cacheManager.fetch(eq(CacheNamespaces.GEOCODE), anyString())).thenReturn(Optional.of(cachedAddress));
+
+        Address address = osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "12");
+
+        assertThat(address).isSameAs(cachedAddress);
+        assertThat(stubServer.getRequestCount()).isZero();
+    }
+
+    @Test
+    void getCorrectAddress_CoalescesConcurrentLookups() throws Exception {
+        stubServer.setResponseDelay(Duration.ofMillis(300));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Address>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(executor.submit(() -> osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "12")));
+            }
+
+            for (Future<Address> lookup: lookups) {
+                assertThat(lookup.get().getDisplayName()).isEqualTo(DISPLAY_NAME);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(stubServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getCorrectAddress_RateLimitsDistinctLookups() {
+        long start = System.nanoTime();
+
+        osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "12");
+        osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "13");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+        assertThat(osmNominatiumAPI.getRateLimiter().getAcquiredCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getCorrectAddress_ChecksHouseNumber() {
+        stubServer.respondWithNothing();
+
+        InvalidCredentialsException ex = assertThrows(InvalidCredentialsException.class,
+                () -> osmNominatiumAPI.getCorrectAddress("казань", "кремлевская", "1000"));
+
+        assertThat(ex.getMessage()).isEqualTo("Please specify the correct house for the meeting.");
+        verify(cacheManager, never()).save(eq(CacheNamespaces.GEOCODE), anyString(), any(), any(Duration.class));
+    }
+
+    private OSMNominatiumAPI createApi() {
+        GeocodingConfigProperties properties = new GeocodingConfigProperties();
+        properties.setBaseUrl(stubServer.getBaseUrl());
+
+        return new OSMNominatiumAPI(properties, new ObjectMapper(), cacheManager, new SimpleMeterRegistry());
+    }
+}
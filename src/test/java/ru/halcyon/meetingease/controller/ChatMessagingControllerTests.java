@@ -0,0 +1,222 @@
+package ru.halcyon.meetingease.controller;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.halcyon.meetingease.dto.ChatMessageCreateDto;
+import ru.halcyon.meetingease.model.Agent;
+import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.repository.ChatMessageRepository;
+import ru.halcyon.meetingease.repository.ClientRepository;
+import ru.halcyon.meetingease.repository.DealRepository;
+import ru.halcyon.meetingease.repository.MeetingRepository;
+import ru.halcyon.meetingease.security.JwtProvider;
+import ru.halcyon.meetingease.service.agent.AgentService;
+import ru.halcyon.meetingease.support.Role;
+import ru.halcyon.meetingease.support.Status;
+
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ChatMessagingControllerTests {
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    @Autowired
+    private AgentService agentService;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    private WebSocketStompClient stompClient;
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meetingRepository.deleteAll();
+        chatMessageRepository.deleteAll();
+        clientRepository.deleteAll();
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stompClient.stop();
+    }
+
+    @Test
+    void processMessage_AcknowledgesWithStoredId() throws Exception {
+        Client client = createClient();
+        Agent agent = agentService.findById(1L);
+        createMeeting(client, agent);
+
+        StompSession session = connect(jwtProvider.generateAccessTokenForClient(client));
+        BlockingQueue<Map<String, Object>> acks = subscribe(session, "/user/queue/acks");
+
+        session.send("/app/messages", new ChatMessageCreateDto(agent.getId(), "test_content"));
+
+        Map<String, Object> ack = acks.poll(5, TimeUnit.SECONDS);
+        assertThat(ack).isNotNull();
+        assertThat(ack.get("content")).isEqualTo("test_content");
+
+        Long id = ((Number) ack.get("id")).longValue();
+        assertThat(chatMessageRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    void processMessage_ReportsForbiddenChat() throws Exception {
+        Client client = createClient();
+        Agent agent = agentService.findById(1L);
+
+        StompSession session = connect(jwtProvider.generateAccessTokenForClient(client));
+        BlockingQueue<Map<String, Object>> errors = subscribe(session, "/user/queue/errors");
+
+        session.send("/app/messages", new ChatMessageCreateDto(agent.getId(), "test_content"));
+
+        Map<String, Object> error = errors.poll(5, TimeUnit.SECONDS);
+        assertThat(error).isNotNull();
+        assertThat(error.get("reason")).isEqualTo("No access for chat.");
+    }
+
+    @Test
+    void processMessage_ReportsInvalidContent() throws Exception {
+        Client client = createClient();
+        Agent agent = agentService.findById(1L);
+        createMeeting(client, agent);
+
+        StompSession session = connect(jwtProvider.generateAccessTokenForClient(client));
+        BlockingQueue<Map<String, Object>> errors = subscribe(session, "/user/queue/errors");
+
+        session.send("/app/messages", new ChatMessageCreateDto(agent.getId(), ""));
+
+        Map<String, Object> error = errors.poll(5, TimeUnit.SECONDS);
+        assertThat(error).isNotNull();
+        assertThat(chatMessageRepository.count()).isZero();
+    }
+
+    private StompSession connect(String token) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+
+        return stompClient.connectAsync(
+                "ws://localhost:" + port + "/ws-native",
+                new WebSocketHttpHeaders(),
+                connectHeaders,
+                new StompSessionHandlerAdapter() {}
+        ).get(5, TimeUnit.SECONDS);
+    }
+
+    private BlockingQueue<Map<String, Object>> subscribe(StompSession session, String destination) throws InterruptedException {
+        BlockingQueue<Map<String, Object>> received = new LinkedBlockingQueue<>();
+
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<String, Object>) payload);
+            }
+        });
+
+        // Give the broker a moment to register the subscription before sending
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        return received;
+    }
+
+    private Client createClient() {
+        return clientRepository.save(
+                Client.builder()
+                        .email("test_email@gmail.com")
+                        .name("test_name")
+                        .surname("test_surname")
+                        .password("test_password")
+                        .position("test_position")
+                        .phoneNumber("test_number")
+                        .isVerified(true)
+                        .role(Role.ADMIN)
+                        .photo("test_photo")
+                        .build()
+        );
+    }
+
+    private Meeting createMeeting(Client client, Agent agent) {
+        return meetingRepository.save(
+                Meeting.builder()
+                        .date(Instant.now().plus(1, ChronoUnit.DAYS))
+                        .status(Status.IN_WAITING)
+                        .address("test_address")
+                        .city("test_city")
+                        .street("test_street")
+                        .houseNumber("test_house")
+                        .deal(dealRepository.findById(1L).get())
+                        .clients(List.of(client))
+                        .agent(agent)
+                        .build()
+        );
+    }
+}
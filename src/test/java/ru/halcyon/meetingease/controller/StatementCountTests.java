@@ -0,0 +1,222 @@
+package ru.halcyon.meetingease.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.halcyon.meetingease.dto.CompanyCreateDto;
+import ru.halcyon.meetingease.model.Agent;
+import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.model.Company;
+import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.repository.AgentRepository;
+import ru.halcyon.meetingease.repository.ClientRepository;
+import ru.halcyon.meetingease.repository.CompanyRepository;
+import ru.halcyon.meetingease.repository.DealRepository;
+import ru.halcyon.meetingease.repository.MeetingRepository;
+import ru.halcyon.meetingease.security.JwtAuthentication;
+import ru.halcyon.meetingease.service.company.CompanyService;
+import ru.halcyon.meetingease.support.Role;
+import ru.halcyon.meetingease.support.Status;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.MOCK,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true"
+)
+@AutoConfigureMockMvc
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StatementCountTests {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    private static final String OWNER_EMAIL = "owner_email@gmail.com";
+    private static final int COMPANY_SIZE = 5;
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @AfterEach
+    void tearDown() {
+        meetingRepository.deleteAll();
+        clientRepository.deleteAll();
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void getCompanyById_FetchesClientsInOneStatement() throws Exception {
+        Company company = createCompanyWithClients();
+
+        Statistics statistics = resetStatistics();
+        mvc.perform(get("/api/v1/companies/{companyId}", company.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("clients", hasSize(COMPANY_SIZE)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getCompanyByName_FetchesClientsInOneStatement() throws Exception {
+        Company company = createCompanyWithClients();
+
+        Statistics statistics = resetStatistics();
+        mvc.perform(get("/api/v1/companies/name").param("value", company.getName()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("clients", hasSize(COMPANY_SIZE)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getScheduledMeetings_DoesNotDependOnMeetingCount() throws Exception {
+        createCompanyWithClients();
+        Client owner = clientRepository.findByEmail(OWNER_EMAIL).orElseThrow();
+
+        for (int i = 1; i <= 3; i++) {
+            createMeeting(owner, i);
+        }
+
+        Statistics statistics = resetStatistics();
+        mvc.perform(get("/api/v1/meetings/in-waiting"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        // the current client is loaded once for both the verification check and the lookup
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cancelMeeting_LoadsMeetingGraphOnce() throws Exception {
+        createCompanyWithClients();
+        Client owner = clientRepository.findByEmail(OWNER_EMAIL).orElseThrow();
+        Meeting meeting = createMeeting(owner, 1);
+
+        Statistics statistics = resetStatistics();
+        mvc.perform(post("/api/v1/meetings/{meetingId}/cancel", meeting.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("status").value(Status.CANCELLED.name()));
+
+        // meeting graph, client lookup and the status update
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        return statistics;
+    }
+
+    private Company createCompanyWithClients() {
+        createClient(OWNER_EMAIL);
+        setJwtAuth();
+
+        Company company = companyService.create(new CompanyCreateDto("test-name", "test_description"));
+
+        for (int i = 1; i < COMPANY_SIZE; i++) {
+            Client client = createClient("test_email_" + i + "@gmail.com");
+            companyService.addClient(company.getId(), client.getEmail());
+        }
+
+        return company;
+    }
+
+    private Meeting createMeeting(Client client, int day) {
+        Agent agent = agentRepository.findAllByCity("Казань").get(0);
+
+        return meetingRepository.save(
+                Meeting.builder()
+                        .date(Instant.now().plus(day, ChronoUnit.DAYS))
+                        .address("test_address")
+                        .city("Казань")
+                        .street("test_street")
+                        .houseNumber("1")
+                        .agent(agent)
+                        .deal(dealRepository.findByType("Кредитование").orElseThrow())
+                        .clients(List.of(client))
+                        .status(Status.IN_WAITING)
+                        .build()
+        );
+    }
+
+    private Client createClient(String email) {
+        return clientRepository.save(
+                Client.builder()
+                        .email(email)
+                        .name("test_name")
+                        .surname("test_surname")
+                        .password("test_password")
+                        .position("test_position")
+                        .phoneNumber("test_number")
+                        .isVerified(true)
+                        .role(Role.ADMIN)
+                        .photo("test_photo")
+                        .build()
+        );
+    }
+
+    private void setJwtAuth() {
+        JwtAuthentication jwtAuthentication = new JwtAuthentication(true, OWNER_EMAIL, true);
+        SecurityContextHolder.getContext().setAuthentication(jwtAuthentication);
+    }
+}
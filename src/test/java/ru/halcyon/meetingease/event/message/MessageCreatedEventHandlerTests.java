@@ -0,0 +1,108 @@
+package ru.halcyon.meetingease.event.message;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.halcyon.meetingease.model.ChatMessage;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class MessageCreatedEventHandlerTests {
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MessageDeliveryMetrics deliveryMetrics;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @Test
+    void handleMessageCreatedEvent_DeliversWithoutTransaction() throws InterruptedException {
+        long delivered = deliveryMetrics.getDeliveredCount();
+
+        eventPublisher.publishEvent(new MessageCreatedEvent(createMessage()));
+
+        awaitDeliveredCount(delivered + 1);
+        assertThat(deliveryMetrics.getDeliveredCount()).isEqualTo(delivered + 1);
+    }
+
+    @Test
+    void handleMessageCreatedEvent_DeliversAfterCommit() throws InterruptedException {
+        long delivered = deliveryMetrics.getDeliveredCount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new MessageCreatedEvent(createMessage()));
+            assertThat(deliveryMetrics.getDeliveredCount()).isEqualTo(delivered);
+        });
+
+        awaitDeliveredCount(delivered + 1);
+        assertThat(deliveryMetrics.getDeliveredCount()).isEqualTo(delivered + 1);
+    }
+
+    @Test
+    void handleMessageCreatedEvent_SkipsRolledBackMessage() throws InterruptedException {
+        long delivered = deliveryMetrics.getDeliveredCount();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new MessageCreatedEvent(createMessage()));
+            status.setRollbackOnly();
+        });
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(deliveryMetrics.getDeliveredCount()).isEqualTo(delivered);
+    }
+
+    private void awaitDeliveredCount(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (deliveryMetrics.getDeliveredCount() < expected && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private ChatMessage createMessage() {
+        return ChatMessage.builder()
+                .id(1L)
+                .content("test_content")
+                .senderId(1L)
+                .recipientId(2L)
+                .isSenderClient(true)
+                .clientId(1L)
+                .agentId(2L)
+                .build();
+    }
+}
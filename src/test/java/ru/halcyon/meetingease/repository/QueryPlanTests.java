@@ -0,0 +1,265 @@
+package ru.halcyon.meetingease.repository;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.support.Status;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    private static final String CITY = "city_7";
+    private static final int PAGE_SIZE = 20;
+
+    private Long agentId;
+    private Long clientId;
+
+    // The application context is created with the test instance, before any @BeforeAll callback runs
+    static {
+        postgres.start();
+    }
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    void beforeAll() {
+        jdbcTemplate.execute("""
+                INSERT INTO agents (name, surname, email, phone_number, city, password, photo)
+                SELECT 'name', 'surname', 'agent_' || i || '@example.com', '+100000', 'city_' || (i % 50), 'password', 'photo'
+                FROM generate_series(1, 1000) AS i
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO clients (name, surname, email, phone_number, role, password, is_verified)
+                SELECT 'name', 'surname', 'client_' || i || '@example.com', '+100000', 'ADMIN', 'password', true
+                FROM generate_series(1, 1000) AS i
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO meetings (date, status, address, city, street, house_number, agent_id, deal_id)
+                SELECT localtimestamp + i * interval '30 minutes',
+                       (ARRAY['IN_WAITING', 'CANCELLED', 'COMPLETED'])[i % 3 + 1],
+                       'address', 'city_' || (i % 50), 'street', '1',
+                       (SELECT min(id) FROM agents WHERE email LIKE 'agent_%@example.com') + i % 1000,
+                       (SELECT min(id) FROM deals)
+                FROM generate_series(1, 20000) AS i
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO meetings_clients (meeting_id, client_id)
+                SELECT m.id, (SELECT min(id) FROM clients) + m.id % 1000
+                FROM meetings m
+                """);
+        jdbcTemplate.execute("""
+                INSERT INTO chat_messages (created_at, content, sender_id, recipient_id, is_sender_client, client_id, agent_id)
+                SELECT now(), 'content', i % 100, i % 37, i % 2 = 0,
+                       CASE WHEN i % 2 = 0 THEN i % 100 ELSE i % 37 END,
+                       CASE WHEN i % 2 = 0 THEN i % 37 ELSE i % 100 END
+                FROM generate_series(1, 50000) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE");
+
+        agentId = jdbcTemplate.queryForObject("SELECT min(id) FROM agents WHERE email LIKE 'agent_%@example.com'", Long.class);
+        clientId = jdbcTemplate.queryForObject("SELECT min(id) FROM clients", Long.class);
+    }
+
+    @AfterAll
+    void afterAll() {
+        jdbcTemplate.execute("DELETE FROM chat_messages");
+        jdbcTemplate.execute("DELETE FROM meetings_clients");
+        jdbcTemplate.execute("DELETE FROM meetings");
+        jdbcTemplate.execute("DELETE FROM clients");
+        jdbcTemplate.execute("DELETE FROM agents WHERE email LIKE 'agent_%@example.com'");
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        sqlCapture.clear();
+    }
+
+    @Test
+    void findAllByClientIdAndAgentIdAndIsSenderClient_UsesIndex() {
+        chatMessageRepository.findAllByClientIdAndAgentIdAndIsSenderClient(10L, 10L, true,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "createdAt", "id")));
+
+        assertNoSeqScan(explain(sqlCapture.first(), "10", "10", "true"), "chat_messages");
+    }
+
+    @Test
+    void findAllBefore_UsesIndex() {
+        chatMessageRepository.findAllBefore(10L, 10L, Instant.now(), 40000L, PageRequest.of(0, PAGE_SIZE));
+
+        assertNoSeqScan(explain(sqlCapture.first(), "10", "10", "localtimestamp", "localtimestamp", "40000"), "chat_messages");
+    }
+
+    @Test
+    void findAllByCityAndStatus_UsesIndex() {
+        meetingRepository.findAllByCityAndStatus(CITY, Status.IN_WAITING);
+
+        assertNoSeqScan(explain(sqlCapture.first(), "'" + CITY + "'", "'IN_WAITING'"), "meetings");
+    }
+
+    @Test
+    void findAllByStatusAndClientsContaining_UsesIndex() {
+        Client client = clientRepository.findById(clientId).orElseThrow();
+        sqlCapture.clear();
+
+        meetingRepository.findAllByStatusAndClientsContaining(Status.IN_WAITING, client);
+
+        assertNoSeqScan(explain(sqlCapture.first(), "'IN_WAITING'", String.valueOf(clientId)), "meetings", "meetings_clients");
+    }
+
+    @Test
+    void existsByAgentIdAndClientsIdAndStatus_UsesIndex() {
+        meetingRepository.existsByAgentIdAndClientsIdAndStatus(agentId, clientId, Status.IN_WAITING);
+
+        assertNoSeqScan(explain(sqlCapture.first(), String.valueOf(agentId), String.valueOf(clientId), "'IN_WAITING'"),
+                "meetings", "meetings_clients");
+    }
+
+    @Test
+    void existsByAgentIdAndStatusAndDateBetween_UsesIndex() {
+        Instant from = Instant.now();
+        meetingRepository.existsByAgentIdAndStatusAndDateBetween(agentId, Status.IN_WAITING, from, from.plus(1, ChronoUnit.HOURS));
+
+        assertNoSeqScan(explain(sqlCapture.first(), String.valueOf(agentId), "'IN_WAITING'",
+                "localtimestamp", "localtimestamp + interval '1 hour'"), "meetings");
+    }
+
+    @Test
+    void findAllIdsByCity_UsesIndex() {
+        agentRepository.findAllIdsByCity(CITY);
+
+        assertNoSeqScan(explain(sqlCapture.first(), "'" + CITY + "'"), "agents");
+    }
+
+    @Test
+    void findAllBookingsByAgentCityAndStatus_UsesIndex() {
+        meetingRepository.findAllBookingsByAgentCityAndStatus(CITY, Status.IN_WAITING);
+
+        assertNoSeqScan(explain(sqlCapture.first(), "'" + CITY + "'", "'IN_WAITING'"), "meetings", "agents");
+    }
+
+    // Small lookup tables like deals may still be scanned, so only the tables the query filters on are checked
+    private void assertNoSeqScan(String plan, String... tables) {
+        for (String table: tables) {
+            assertThat(plan).doesNotContain("Seq Scan on " + table + " ");
+        }
+    }
+
+    // Placeholders past the given arguments belong to the limit and offset clauses Hibernate appends
+    private String explain(String sql, String... arguments) {
+        StringBuilder query = new StringBuilder();
+        int placeholders = 0;
+
+        for (char c: sql.toCharArray()) {
+            if (c == '?') {
+                query.append('$').append(++placeholders);
+            } else {
+                query.append(c);
+            }
+        }
+
+        List<String> values = new ArrayList<>(List.of(arguments));
+        while (values.size() < placeholders) {
+            values.add(String.valueOf(PAGE_SIZE));
+        }
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PREPARE repository_query AS " + query);
+
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN EXECUTE repository_query(" + String.join(", ", values) + ")")) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                } finally {
+                    statement.execute("DEALLOCATE repository_query");
+                }
+
+                return String.join("\n", lines);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    static class SqlCapture implements StatementInspector {
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        String first() {
+            assertThat(statements).isNotEmpty();
+            return statements.get(0);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.halcyon.meetingease.security;
+
+import org.junit.jupiter.api.Test;
+import ru.halcyon.meetingease.config.TokenConfigProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTests {
+    private static final String JWT_TOKEN = "header.payload.signature";
+
+    @Test
+    void get_ReturnsTokenVerifiedWithCurrentKeys() {
+        VerifiedTokenCache cache = createCache(true);
+        VerifiedAccessToken token = createToken(Instant.now().plus(Duration.ofMinutes(30)));
+
+        assertThat(cache.get(JWT_TOKEN, 1)).isEmpty();
+        cache.put(JWT_TOKEN, token, 1);
+
+        assertThat(cache.get(JWT_TOKEN, 1)).containsSame(token);
+    }
+
+    @Test
+    void get_DropsTokensAfterKeyRotation() {
+        VerifiedTokenCache cache = createCache(true);
+        cache.get(JWT_TOKEN, 1);
+        cache.put(JWT_TOKEN, createToken(Instant.now().plus(Duration.ofMinutes(30))), 1);
+
+        assertThat(cache.get(JWT_TOKEN, 2)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_SkipsTokenVerifiedWithRotatedKeys() {
+        VerifiedTokenCache cache = createCache(true);
+        cache.get(JWT_TOKEN, 2);
+
+        cache.put(JWT_TOKEN, createToken(Instant.now().plus(Duration.ofMinutes(30))), 1);
+
+        assertThat(cache.get(JWT_TOKEN, 2)).isEmpty();
+    }
+
+    @Test
+    void get_ForgetsExpiredToken() throws InterruptedException {
+        VerifiedTokenCache cache = createCache(true);
+        cache.get(JWT_TOKEN, 1);
+        cache.put(JWT_TOKEN, createToken(Instant.now().plus(Duration.ofMillis(200))), 1);
+
+        Thread.sleep(300);
+
+        assertThat(cache.get(JWT_TOKEN, 1)).isEmpty();
+    }
+
+    @Test
+    void get_DoesNothingWhenDisabled() {
+        VerifiedTokenCache cache = createCache(false);
+        cache.get(JWT_TOKEN, 1);
+        cache.put(JWT_TOKEN, createToken(Instant.now().plus(Duration.ofMinutes(30))), 1);
+
+        assertThat(cache.get(JWT_TOKEN, 1)).isEmpty();
+    }
+
+    private VerifiedTokenCache createCache(boolean enabled) {
+        TokenConfigProperties properties = new TokenConfigProperties();
+        properties.getAccessToken().getCache().setEnabled(enabled);
+
+        return new VerifiedTokenCache(properties);
+    }
+
+    private VerifiedAccessToken createToken(Instant expiration) {
+        return new VerifiedAccessToken("test@mail.ru", String.valueOf(UUID.randomUUID()), true, expiration);
+    }
+}
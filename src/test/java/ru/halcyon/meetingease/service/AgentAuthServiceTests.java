@@ -22,6 +22,7 @@ import ru.halcyon.meetingease.security.JwtAuthentication;
 import ru.halcyon.meetingease.security.JwtProvider;
 import ru.halcyon.meetingease.service.auth.AgentAuthService;
 import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -127,7 +128,7 @@ class AgentAuthServiceTests {
     }
 
     private void isValidRefreshToken(String refreshToken, String email) {
-        assertTrue(cacheManager.isPresent(refreshToken));
-        assertThat(cacheManager.fetch(refreshToken, String.class)).contains(email);
+        assertTrue(cacheManager.exists(CacheNamespaces.REFRESH_TOKENS, refreshToken));
+        assertThat(cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, refreshToken)).contains(email);
     }
 }
@@ -10,8 +10,11 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.halcyon.meetingease.dto.ChatHistoryDto;
 import ru.halcyon.meetingease.dto.ChatMessageCreateDto;
+import ru.halcyon.meetingease.dto.CompanyCreateDto;
 import ru.halcyon.meetingease.exception.ResourceForbiddenException;
+import ru.halcyon.meetingease.exception.ResourceNotFoundException;
 import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.model.ChatMessage;
 import ru.halcyon.meetingease.model.Client;
@@ -20,12 +23,15 @@ import ru.halcyon.meetingease.repository.*;
 import ru.halcyon.meetingease.security.JwtAuthentication;
 import ru.halcyon.meetingease.service.agent.AgentService;
 import ru.halcyon.meetingease.service.chat.ChatMessageService;
+import ru.halcyon.meetingease.service.company.CompanyService;
+import ru.halcyon.meetingease.service.meeting.MeetingService;
 import ru.halcyon.meetingease.support.Role;
 import ru.halcyon.meetingease.support.Status;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,6 +59,15 @@ class ChatMessageServiceTests {
     @Autowired
     private AgentService agentService;
 
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private CompanyService companyService;
+
+    @Autowired
+    private MeetingService meetingService;
+
     @Container
     private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
 
@@ -78,6 +93,7 @@ class ChatMessageServiceTests {
         meetingRepository.deleteAll();
         chatMessageRepository.deleteAll();
         clientRepository.deleteAll();
+        companyRepository.deleteAll();
     }
 
     @Test
@@ -88,11 +104,14 @@ class ChatMessageServiceTests {
 
     @Test
     void findById() {
+        Long clientId = createClient().getId();
         ChatMessage createdChatMessage = chatMessageRepository.save(ChatMessage.builder()
                 .content("test_content")
-                .senderId(createClient().getId())
+                .senderId(clientId)
                 .recipientId(1L)
                 .isSenderClient(true)
+                .clientId(clientId)
+                .agentId(1L)
                 .build());
 
         ChatMessage receivedChatMessage = chatMessageService.findById(createdChatMessage.getId());
@@ -129,6 +148,32 @@ class ChatMessageServiceTests {
         assertThat(forbiddenException.getMessage()).isEqualTo("No access for chat.");
     }
 
+    @Test
+    void processClientMessage_ChecksRecipientExisting() {
+        Client client = createClient();
+
+        setJwtAuth(client.getEmail(), true);
+
+        ResourceNotFoundException notFoundException = assertThrows(ResourceNotFoundException.class, () ->
+                chatMessageService.processMessage(new ChatMessageCreateDto(Long.MAX_VALUE, "test_content")));
+
+        assertThat(notFoundException.getMessage()).isEqualTo("Agent with this id not found.");
+    }
+
+    @Test
+    void processClientMessage_GainsAccessWhenMeetingCreated() {
+        Client client = createClient();
+        setJwtAuth(client.getEmail(), true);
+
+        assertThrows(ResourceForbiddenException.class, () ->
+                chatMessageService.processMessage(new ChatMessageCreateDto(1L, "test_content")));
+
+        createMeeting(client);
+        ChatMessage chatMessage = chatMessageService.processMessage(new ChatMessageCreateDto(1L, "test_content"));
+
+        assertThat(chatMessage.getClientId()).isEqualTo(client.getId());
+    }
+
     @Test
     void processAgentMessage() {
         Client client = createClient();
@@ -174,6 +219,85 @@ class ChatMessageServiceTests {
         assertThat(messages).isEqualTo(List.of(chatMessage1, chatMessage2, chatMessage3));
     }
 
+    @Test
+    void processClientMessage_LosesAccessWhenMeetingCancelled() {
+        Client client = createClient();
+        setJwtAuth(client.getEmail(), true);
+
+        companyService.create(new CompanyCreateDto("test-name", "test_description"));
+        Meeting meeting = createMeeting(client);
+
+        chatMessageService.processMessage(new ChatMessageCreateDto(1L, "test_content"));
+        meetingService.cancel(meeting.getId());
+
+        ResourceForbiddenException forbiddenException = assertThrows(ResourceForbiddenException.class, () ->
+                chatMessageService.processMessage(new ChatMessageCreateDto(1L, "test_content")));
+
+        assertThat(forbiddenException.getMessage()).isEqualTo("No access for chat.");
+    }
+
+    @Test
+    void findChatMessages_ReturnsOnlySentMessages() {
+        Client client = createClient();
+        createMeeting(client);
+        Agent agent = agentService.findById(1L);
+
+        setJwtAuth(client.getEmail(), true);
+        ChatMessage clientMessage = chatMessageService.processMessage(new ChatMessageCreateDto(agent.getId(), "test_question"));
+
+        setJwtAuth(agent.getEmail(), false);
+        ChatMessage agentMessage = chatMessageService.processMessage(new ChatMessageCreateDto(client.getId(), "test_answer"));
+        List<ChatMessage> agentView = chatMessageService.findChatMessages(client.getId(), 0, 20).getContent();
+
+        setJwtAuth(client.getEmail(), true);
+        List<ChatMessage> clientView = chatMessageService.findChatMessages(agent.getId(), 0, 20).getContent();
+
+        assertThat(clientView).isEqualTo(List.of(clientMessage));
+        assertThat(agentView).isEqualTo(List.of(agentMessage));
+    }
+
+    @Test
+    void findChatHistory_ReturnsBothDirections() {
+        Client client = createClient();
+        createMeeting(client);
+        Agent agent = agentService.findById(1L);
+
+        setJwtAuth(client.getEmail(), true);
+        ChatMessage clientMessage = chatMessageService.processMessage(new ChatMessageCreateDto(agent.getId(), "test_question"));
+
+        setJwtAuth(agent.getEmail(), false);
+        ChatMessage agentMessage = chatMessageService.processMessage(new ChatMessageCreateDto(client.getId(), "test_answer"));
+        List<ChatMessage> agentView = chatMessageService.findChatHistory(client.getId(), null, 20).getMessages();
+
+        setJwtAuth(client.getEmail(), true);
+        List<ChatMessage> clientView = chatMessageService.findChatHistory(agent.getId(), null, 20).getMessages();
+
+        assertThat(clientView).isEqualTo(List.of(agentMessage, clientMessage));
+        assertThat(agentView).isEqualTo(clientView);
+    }
+
+    @Test
+    void findChatHistory_PagesBackwardsByCursor() {
+        Client client = createClient();
+        createMeeting(client);
+
+        setJwtAuth(client.getEmail(), true);
+
+        List<ChatMessage> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(chatMessageService.processMessage(new ChatMessageCreateDto(1L, "test_content_" + i)));
+        }
+
+        ChatHistoryDto firstPage = chatMessageService.findChatHistory(1L, null, 2);
+        ChatHistoryDto secondPage = chatMessageService.findChatHistory(1L, firstPage.getNextCursor(), 2);
+        ChatHistoryDto lastPage = chatMessageService.findChatHistory(1L, secondPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getMessages()).isEqualTo(List.of(sent.get(4), sent.get(3)));
+        assertThat(secondPage.getMessages()).isEqualTo(List.of(sent.get(2), sent.get(1)));
+        assertThat(lastPage.getMessages()).isEqualTo(List.of(sent.get(0)));
+        assertThat(lastPage.getNextCursor()).isNull();
+    }
+
     @Test
     void processClientMessages_ChecksMeetingExisting() {
         Client client = createClient();
@@ -231,10 +355,10 @@ class ChatMessageServiceTests {
         );
     }
 
-    private void createMeeting(Client client) {
+    private Meeting createMeeting(Client client) {
         Agent agent = agentService.findById(1L);
 
-        meetingRepository.save(
+        return meetingRepository.save(
                 Meeting.builder()
                         .date(getDate())
                         .status(Status.IN_WAITING)
@@ -0,0 +1,133 @@
+package ru.halcyon.meetingease.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.halcyon.meetingease.model.ChatMessage;
+import ru.halcyon.meetingease.repository.ChatMessageRepository;
+import ru.halcyon.meetingease.service.chat.ChatMessageWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "chat.messages.write-mode=write-behind")
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ChatMessageWriterTests {
+    @Autowired
+    private ChatMessageWriter chatMessageWriter;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    private static final int MESSAGE_COUNT = 120;
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        chatMessageRepository.deleteAll();
+    }
+
+    @Test
+    void write_AssignsIdBeforePersisting() {
+        ChatMessage message = chatMessageWriter.write(createMessage("test_content"));
+
+        assertThat(message.getId()).isNotNull();
+        assertThat(message.getCreatedAt()).isNotNull();
+
+        chatMessageWriter.flush();
+
+        assertThat(chatMessageRepository.findById(message.getId())).contains(message);
+    }
+
+    @Test
+    void write_PersistsMessagesInBatches() {
+        long batchesBefore = chatMessageWriter.getBatchCount();
+
+        List<ChatMessage> written = new ArrayList<>();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            written.add(chatMessageWriter.write(createMessage("test_content_" + i)));
+        }
+
+        chatMessageWriter.flush();
+
+        assertThat(written).extracting(ChatMessage::getId).doesNotHaveDuplicates();
+        assertThat(chatMessageRepository.count()).isEqualTo(MESSAGE_COUNT);
+        assertThat(chatMessageWriter.getBatchCount() - batchesBefore).isLessThan(MESSAGE_COUNT);
+    }
+
+    @Test
+    void write_DoesNotCollideWithRepositoryIds() {
+        ChatMessage queued = chatMessageWriter.write(createMessage("test_queued"));
+        ChatMessage saved = chatMessageRepository.save(createMessage("test_saved"));
+
+        chatMessageWriter.flush();
+
+        assertThat(saved.getId()).isNotEqualTo(queued.getId());
+        assertThat(chatMessageRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void write_RetriesFailedBatchOneMessageAtATime() {
+        long failedBefore = chatMessageWriter.getFailedCount();
+
+        ChatMessage first = chatMessageWriter.write(createMessage("test_first"));
+        ChatMessage tooLong = chatMessageWriter.write(createMessage("x".repeat(501)));
+        ChatMessage last = chatMessageWriter.write(createMessage("test_last"));
+
+        chatMessageWriter.flush();
+
+        assertThat(chatMessageRepository.findById(first.getId())).isPresent();
+        assertThat(chatMessageRepository.findById(tooLong.getId())).isEmpty();
+        assertThat(chatMessageRepository.findById(last.getId())).isPresent();
+        assertThat(chatMessageWriter.getFailedCount() - failedBefore).isEqualTo(1);
+    }
+
+    @Test
+    void write_AssignsIdsInArrivalOrder() {
+        List<ChatMessage> written = new ArrayList<>();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            written.add(chatMessageWriter.write(createMessage("test_content_" + i)));
+        }
+
+        assertThat(written).extracting(ChatMessage::getId).isSorted();
+    }
+
+    private ChatMessage createMessage(String content) {
+        return ChatMessage.builder()
+                .content(content)
+                .senderId(1L)
+                .recipientId(2L)
+                .isSenderClient(true)
+                .clientId(1L)
+                .agentId(2L)
+                .build();
+    }
+}
@@ -27,6 +27,7 @@ import ru.halcyon.meetingease.security.JwtProvider;
 import ru.halcyon.meetingease.service.auth.ClientAuthService;
 import ru.halcyon.meetingease.service.client.ClientService;
 import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -205,7 +206,7 @@ class ClientAuthServiceTests {
     }
 
     private void isValidRefreshToken(String refreshToken, String email) {
-        assertTrue(cacheManager.isPresent(refreshToken));
-        assertThat(cacheManager.fetch(refreshToken, String.class)).contains(email);
+        assertTrue(cacheManager.exists(CacheNamespaces.REFRESH_TOKENS, refreshToken));
+        assertThat(cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, refreshToken)).contains(email);
     }
 }
@@ -0,0 +1,157 @@
+package ru.halcyon.meetingease.service;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.halcyon.meetingease.model.Meeting;
+import ru.halcyon.meetingease.repository.AgentRepository;
+import ru.halcyon.meetingease.repository.DealRepository;
+import ru.halcyon.meetingease.repository.MeetingRepository;
+import ru.halcyon.meetingease.service.meeting.AgentAvailabilityEngine;
+import ru.halcyon.meetingease.support.Status;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "meeting.availability.engine=database")
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DatabaseAgentAvailabilityEngineTests {
+    @Autowired
+    private AgentAvailabilityEngine agentAvailabilityEngine;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    // The only agent in this city
+    private static final String CITY = "Екатеринбург";
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @AfterEach
+    void tearDown() {
+        meetingRepository.deleteAll();
+    }
+
+    @Test
+    void findFreeAgentId_WaitsForConcurrentBookingOfAnotherTime() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Optional<Long> agentId = agentAvailabilityEngine.findFreeAgentId(CITY, getDate(10, 0));
+            locked.countDown();
+
+            // Keeps the agent locked while the second booking looks for a free agent
+            sleep(500);
+            agentId.ifPresent(id -> createMeeting(id, getDate(10, 0)));
+
+            return agentId;
+        }));
+
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Optional<Long>> second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Optional<Long> agentId = agentAvailabilityEngine.findFreeAgentId(CITY, getDate(14, 0));
+            agentId.ifPresent(id -> createMeeting(id, getDate(14, 0)));
+
+            return agentId;
+        }));
+
+        Optional<Long> firstAgentId = first.get(10, TimeUnit.SECONDS);
+        Optional<Long> secondAgentId = second.get(10, TimeUnit.SECONDS);
+
+        assertThat(firstAgentId).isPresent();
+        assertThat(secondAgentId).isEqualTo(firstAgentId);
+    }
+
+    @Test
+    void findFreeAgentId_SkipsAgentBookedConcurrentlyForSameTime() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+
+        CompletableFuture<Optional<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            Optional<Long> agentId = agentAvailabilityEngine.findFreeAgentId(CITY, getDate(10, 0));
+            locked.countDown();
+
+            sleep(500);
+            agentId.ifPresent(id -> createMeeting(id, getDate(10, 0)));
+
+            return agentId;
+        }));
+
+        assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Optional<Long>> second = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+                agentAvailabilityEngine.findFreeAgentId(CITY, getDate(10, 30))));
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isPresent();
+        assertThat(second.get(10, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    private void createMeeting(Long agentId, Instant date) {
+        meetingRepository.save(
+                Meeting.builder()
+                        .date(date)
+                        .address("test_address")
+                        .city(CITY)
+                        .street("test_street")
+                        .houseNumber("1")
+                        .agent(agentRepository.getReferenceById(agentId))
+                        .deal(dealRepository.findByType("Кредитование").get())
+                        .status(Status.IN_WAITING)
+                        .build()
+        );
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Instant getDate(int hour, int minute) {
+        return LocalDateTime.of(2024, 5, 6, hour, minute).atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -13,12 +13,15 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import ru.halcyon.meetingease.dto.CompanyCreateDto;
 import ru.halcyon.meetingease.dto.MeetingCreateDto;
 import ru.halcyon.meetingease.exception.InvalidCredentialsException;
+import ru.halcyon.meetingease.model.Agent;
 import ru.halcyon.meetingease.model.Client;
 import ru.halcyon.meetingease.model.Deal;
 import ru.halcyon.meetingease.model.Meeting;
 import ru.halcyon.meetingease.service.company.CompanyService;
 import ru.halcyon.meetingease.service.meeting.MeetingService;
 import ru.halcyon.meetingease.support.Role;
+import ru.halcyon.meetingease.support.Status;
+import ru.halcyon.meetingease.repository.AgentRepository;
 import ru.halcyon.meetingease.repository.ClientRepository;
 import ru.halcyon.meetingease.repository.CompanyRepository;
 import ru.halcyon.meetingease.repository.DealRepository;
@@ -28,6 +31,8 @@ import ru.halcyon.meetingease.security.JwtAuthentication;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,6 +50,9 @@ class MeetingServiceTests {
     @Autowired
     private DealRepository dealRepository;
 
+    @Autowired
+    private AgentRepository agentRepository;
+
     @Autowired
     private CompanyRepository companyRepository;
 
@@ -114,6 +122,62 @@ class MeetingServiceTests {
         assertThat(ex3.getMessage()).isEqualTo("Unfortunately, there are no agents available at the moment.");
     }
 
+    @Test
+    void cancelMeeting_ReleasesAgent() {
+        Client client = createClient("test_email@gmail.com");
+
+        JwtAuthentication jwtAuthentication = new JwtAuthentication(true, client.getEmail(), true);
+        SecurityContextHolder.getContext().setAuthentication(jwtAuthentication);
+
+        companyService.create(new CompanyCreateDto("test_name", "test_description"));
+
+        Meeting cancelledMeeting = meetingService.create(new MeetingCreateDto(getDate(4, 10, 0), "казань", "бауман", "31/12", "Кредитование"));
+        meetingService.create(new MeetingCreateDto(getDate(4, 10, 0), "казань", "бауман", "31/12", "Кредитование"));
+
+        InvalidCredentialsException ex = assertThrows(InvalidCredentialsException.class, () -> meetingService.create(new MeetingCreateDto(getDate(4, 10, 0), "казань", "бауман", "31/12", "Кредитование")));
+        assertThat(ex.getMessage()).isEqualTo("Unfortunately, there are no agents available at the moment.");
+
+        meetingService.cancel(cancelledMeeting.getId());
+        Meeting meeting = meetingService.create(new MeetingCreateDto(getDate(4, 10, 0), "казань", "бауман", "31/12", "Кредитование"));
+
+        assertThat(meeting.getAgent()).isEqualTo(cancelledMeeting.getAgent());
+    }
+
+    @Test
+    void createMeeting_SkipsAgentBookedOutsideService() {
+        Client client = createClient("test_email@gmail.com");
+
+        JwtAuthentication jwtAuthentication = new JwtAuthentication(true, client.getEmail(), true);
+        SecurityContextHolder.getContext().setAuthentication(jwtAuthentication);
+
+        // Booking every agent makes the next attempt reload the city, which isn't repeated until the reload interval passes
+        meetingService.create(new MeetingCreateDto(getDate(6, 10, 0), "казань", "бауман", "31/12", "Кредитование"));
+        meetingService.create(new MeetingCreateDto(getDate(6, 10, 0), "казань", "бауман", "31/12", "Кредитование"));
+        assertThrows(InvalidCredentialsException.class, () -> meetingService.create(new MeetingCreateDto(getDate(6, 10, 0), "казань", "бауман", "31/12", "Кредитование")));
+
+        Agent firstAgent = agentRepository.findAllByCity("Казань").stream()
+                .min(Comparator.comparing(Agent::getId))
+                .orElseThrow();
+
+        meetingRepository.save(
+                Meeting.builder()
+                        .date(getDate(7, 10, 0))
+                        .address("test_address")
+                        .city("Казань")
+                        .street("test_street")
+                        .houseNumber("1")
+                        .agent(firstAgent)
+                        .deal(dealRepository.findByType("Кредитование").get())
+                        .clients(List.of(client))
+                        .status(Status.IN_WAITING)
+                        .build()
+        );
+
+        Meeting meeting = meetingService.create(new MeetingCreateDto(getDate(7, 10, 0), "казань", "бауман", "31/12", "Кредитование"));
+
+        assertThat(meeting.getAgent().getId()).isNotEqualTo(firstAgent.getId());
+    }
+
     @Test
     void changeStreet() {
         Client client = createClient("test_email@gmail.com");
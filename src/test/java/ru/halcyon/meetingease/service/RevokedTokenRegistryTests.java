@@ -0,0 +1,146 @@
+package ru.halcyon.meetingease.service;
+
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import ru.halcyon.meetingease.config.TokenConfigProperties;
+import ru.halcyon.meetingease.service.auth.RevokedTokenRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class RevokedTokenRegistryTests {
+    @Container
+    private static final RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:5.0.5-alpine"))
+            .withExposedPorts(6379);
+
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private final List<RedisMessageListenerContainer> listenerContainers = new ArrayList<>();
+    private final List<RevokedTokenRegistry> registries = new ArrayList<>();
+
+    private RevokedTokenRegistry firstInstance;
+    private RevokedTokenRegistry secondInstance;
+
+    @BeforeEach
+    void setUp() {
+        firstInstance = createInstance();
+        secondInstance = createInstance();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        registries.forEach(RevokedTokenRegistry::destroy);
+
+        for (RedisMessageListenerContainer listenerContainer: listenerContainers) {
+            listenerContainer.destroy();
+        }
+
+        for (LettuceConnectionFactory connectionFactory: connectionFactories) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void notRevokedTokenIsAnsweredLocally() {
+        assertThat(firstInstance.mightBeRevoked(String.valueOf(UUID.randomUUID()))).isFalse();
+    }
+
+    @Test
+    void revocationPropagatesToAnotherInstance() throws InterruptedException {
+        String jti = String.valueOf(UUID.randomUUID());
+
+        // Both instances build their filters before the revocation happens
+        assertThat(firstInstance.mightBeRevoked(jti)).isFalse();
+        assertThat(secondInstance.mightBeRevoked(jti)).isFalse();
+
+        firstInstance.register(jti, Instant.now().plus(Duration.ofMinutes(30)));
+
+        assertThat(firstInstance.mightBeRevoked(jti)).isTrue();
+        assertThat(awaitRevoked(secondInstance, jti)).isTrue();
+    }
+
+    @Test
+    void newInstanceLoadsExistingRevocations() {
+        String jti = String.valueOf(UUID.randomUUID());
+        firstInstance.register(jti, Instant.now().plus(Duration.ofMinutes(30)));
+
+        RevokedTokenRegistry lateInstance = createInstance();
+
+        assertThat(lateInstance.mightBeRevoked(jti)).isTrue();
+    }
+
+    @Test
+    void newInstanceLoadsRevocationsStoredUnderLegacyKey() {
+        String jti = String.valueOf(UUID.randomUUID());
+
+        // Written the way keys were serialized before they became plain strings
+        RedisTemplate<String, Object> legacyTemplate = new RedisTemplate<>();
+        legacyTemplate.setConnectionFactory(connectionFactories.get(0));
+        legacyTemplate.setDefaultSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
+        legacyTemplate.afterPropertiesSet();
+        legacyTemplate.opsForZSet().add(RevokedTokenRegistry.REVOKED_JTIS_KEY, jti, Instant.now().plus(Duration.ofMinutes(30)).toEpochMilli());
+
+        RevokedTokenRegistry lateInstance = createInstance();
+
+        assertThat(lateInstance.mightBeRevoked(jti)).isTrue();
+    }
+
+    private boolean awaitRevoked(RevokedTokenRegistry registry, String jti) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (System.currentTimeMillis() < deadline) {
+            if (registry.mightBeRevoked(jti)) {
+                return true;
+            }
+
+            Thread.sleep(50);
+        }
+
+        return false;
+    }
+
+    private RevokedTokenRegistry createInstance() {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379))
+        );
+        connectionFactory.afterPropertiesSet();
+        connectionFactories.add(connectionFactory);
+
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.afterPropertiesSet();
+
+        RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainers.add(listenerContainer);
+
+        TokenConfigProperties tokenConfigProperties = new TokenConfigProperties();
+        tokenConfigProperties.getRevocation().setSyncInterval(Duration.ofHours(1));
+
+        RevokedTokenRegistry registry = new RevokedTokenRegistry(redisTemplate, listenerContainer, tokenConfigProperties);
+        registry.init();
+        registries.add(registry);
+        listenerContainer.start();
+
+        return registry;
+    }
+}
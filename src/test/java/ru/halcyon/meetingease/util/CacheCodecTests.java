@@ -0,0 +1,49 @@
+package ru.halcyon.meetingease.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import ru.halcyon.meetingease.support.Address;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheCodecTests {
+    private static final Address ADDRESS = new Address(
+            "Республика Татарстан",
+            "Казань",
+            "Кремлёвская улица",
+            "12",
+            "12, Кремлёвская улица, Вахитовский район, Казань, городской округ Казань, Республика Татарстан"
+    );
+
+    private static final List<Long> AGENT_IDS = LongStream.rangeClosed(1, 200).boxed().toList();
+
+    @Test
+    void smile_RoundTripsValues() {
+        CacheCodec<Address> addressCodec = CacheCodec.smile(Address.class);
+        CacheCodec<List<Long>> agentIdsCodec = CacheCodec.smile(new TypeReference<List<Long>>() {});
+
+        assertThat(addressCodec.decode(addressCodec.encode(ADDRESS))).usingRecursiveComparison().isEqualTo(ADDRESS);
+        assertThat(agentIdsCodec.decode(agentIdsCodec.encode(AGENT_IDS))).isEqualTo(AGENT_IDS);
+    }
+
+    @Test
+    void smile_IsSmallerThanJson() {
+        assertThat(CacheCodec.smile(Address.class).encode(ADDRESS).length)
+                .isLessThan(CacheCodec.json(Address.class).encode(ADDRESS).length);
+
+        CacheCodec<List<Long>> smileCodec = CacheCodec.smile(new TypeReference<List<Long>>() {});
+        CacheCodec<List<Long>> jsonCodec = CacheCodec.json(new TypeReference<List<Long>>() {});
+
+        assertThat(smileCodec.encode(AGENT_IDS).length).isLessThan(jsonCodec.encode(AGENT_IDS).length);
+    }
+
+    @Test
+    void smile_ReadsEntriesWrittenAsJson() {
+        byte[] legacyEntry = CacheCodec.json(Address.class).encode(ADDRESS);
+
+        assertThat(CacheCodec.smile(Address.class).decode(legacyEntry)).usingRecursiveComparison().isEqualTo(ADDRESS);
+    }
+}
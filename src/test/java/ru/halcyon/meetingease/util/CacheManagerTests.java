@@ -0,0 +1,250 @@
+package ru.halcyon.meetingease.util;
+
+import com.redis.testcontainers.RedisContainer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import ru.halcyon.meetingease.config.CacheConfigProperties;
+import ru.halcyon.meetingease.support.Address;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class CacheManagerTests {
+    @Container
+    private static final RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:5.0.5-alpine"))
+            .withExposedPorts(6379);
+
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private final List<RedisMessageListenerContainer> listenerContainers = new ArrayList<>();
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, byte[]> cacheRedisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = createConnectionFactory();
+        cacheRedisTemplate = createTemplate(connectionFactory);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = createInstance(new CacheConfigProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisMessageListenerContainer listenerContainer: listenerContainers) {
+            listenerContainer.destroy();
+        }
+
+        for (LettuceConnectionFactory factory: connectionFactories) {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    void fetch_ReturnsTypedValue() {
+        String id = randomId();
+        Address address = new Address("region", "Казань", "Кремлёвская улица", "12", "display_name");
+
+        cacheManager.save(CacheNamespaces.GEOCODE, id, address, Duration.ofMinutes(1));
+
+        assertThat(cacheManager.fetch(CacheNamespaces.GEOCODE, id)).get().usingRecursiveComparison().isEqualTo(address);
+        assertThat(cacheRedisTemplate.hasKey("geocode:" + id)).isTrue();
+    }
+
+    @Test
+    void fetch_RecordsHitsAndMissesPerNamespace() {
+        String id = randomId();
+        cacheManager.save(CacheNamespaces.REFRESH_TOKENS, id, "test@mail.ru", Duration.ofMinutes(1));
+
+        cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, id);
+        cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, randomId());
+
+        assertThat(requestCount("refresh", Metrics.HIT)).isEqualTo(1);
+        assertThat(requestCount("refresh", Metrics.MISS)).isEqualTo(1);
+    }
+
+    @Test
+    void exists_ChecksMarkerWithoutValue() {
+        String id = randomId();
+
+        assertThat(cacheManager.exists(CacheNamespaces.REVOKED_JTIS, id)).isFalse();
+
+        cacheManager.save(CacheNamespaces.REVOKED_JTIS, id, Duration.ofMinutes(1));
+
+        assertThat(cacheManager.exists(CacheNamespaces.REVOKED_JTIS, id)).isTrue();
+    }
+
+    @Test
+    void saveAll_WritesBatchReadByFetchAll() {
+        Map<String, String> values = Map.of(randomId(), "first@mail.ru", randomId(), "second@mail.ru");
+        String missingId = randomId();
+
+        cacheManager.saveAll(CacheNamespaces.REFRESH_TOKENS, values, Duration.ofMinutes(1));
+
+        List<String> ids = new ArrayList<>(values.keySet());
+        ids.add(missingId);
+
+        assertThat(cacheManager.fetchAll(CacheNamespaces.REFRESH_TOKENS, ids)).isEqualTo(values);
+        assertThat(cacheRedisTemplate.getExpire("refresh:" + ids.get(0))).isPositive();
+    }
+
+    @Test
+    void fetch_ReadsEntriesWrittenBeforeNamespaces() {
+        String refreshToken = randomId();
+        String jti = randomId();
+
+        // The previous cache layout: JSON-serialized keys and values without a namespace
+        RedisTemplate<String, Object> legacyTemplate = new RedisTemplate<>();
+        legacyTemplate.setConnectionFactory(connectionFactory);
+        legacyTemplate.setDefaultSerializer(new Jackson2JsonRedisSerializer<>(Object.class));
+        legacyTemplate.afterPropertiesSet();
+
+        legacyTemplate.opsForValue().set(refreshToken, "test@mail.ru", Duration.ofMinutes(1));
+        legacyTemplate.opsForValue().set(jti, "", Duration.ofMinutes(1));
+
+        assertThat(cacheManager.fetch(CacheNamespaces.REFRESH_TOKENS, refreshToken)).contains("test@mail.ru");
+        assertThat(cacheManager.exists(CacheNamespaces.REVOKED_JTIS, jti)).isTrue();
+    }
+
+    @Test
+    void fetch_ServesNearCacheWithoutRedis() {
+        CacheManager nearCacheManager = createInstance(nearCacheProperties());
+        String city = randomId();
+
+        nearCacheManager.save(CacheNamespaces.AGENT_IDS_BY_CITY, city, List.of(1L, 2L), Duration.ofMinutes(1));
+        cacheRedisTemplate.delete("agent-ids-by-city:" + city);
+
+        assertThat(nearCacheManager.fetch(CacheNamespaces.AGENT_IDS_BY_CITY, city)).contains(List.of(1L, 2L));
+        assertThat(requestCount("agent-ids-by-city", Metrics.HIT) + requestCount("agent-ids-by-city", Metrics.MISS)).isZero();
+    }
+
+    @Test
+    void save_InvalidatesNearCacheOfAnotherInstance() throws InterruptedException {
+        CacheManager firstInstance = createInstance(nearCacheProperties());
+        CacheManager secondInstance = createInstance(nearCacheProperties());
+        String city = randomId();
+
+        firstInstance.save(CacheNamespaces.AGENT_IDS_BY_CITY, city, List.of(1L), Duration.ofMinutes(1));
+        assertThat(secondInstance.fetch(CacheNamespaces.AGENT_IDS_BY_CITY, city)).contains(List.of(1L));
+
+        firstInstance.save(CacheNamespaces.AGENT_IDS_BY_CITY, city, List.of(1L, 2L), Duration.ofMinutes(1));
+
+        assertThat(awaitValue(secondInstance, city, List.of(1L, 2L))).isTrue();
+    }
+
+    @Test
+    void evict_InvalidatesNearCacheOfAnotherInstance() throws InterruptedException {
+        CacheManager firstInstance = createInstance(nearCacheProperties());
+        CacheManager secondInstance = createInstance(nearCacheProperties());
+        String city = randomId();
+
+        firstInstance.save(CacheNamespaces.AGENT_IDS_BY_CITY, city, List.of(1L), Duration.ofMinutes(1));
+        assertThat(secondInstance.fetch(CacheNamespaces.AGENT_IDS_BY_CITY, city)).contains(List.of(1L));
+
+        firstInstance.evict(CacheNamespaces.AGENT_IDS_BY_CITY, city);
+
+        assertThat(firstInstance.fetch(CacheNamespaces.AGENT_IDS_BY_CITY, city)).isEmpty();
+        assertThat(awaitValue(secondInstance, city, null)).isTrue();
+    }
+
+    @Test
+    void fetchOrLoad_LoadsOnlyOnMiss() {
+        String city = randomId();
+        List<String> loads = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            List<Long> agentIds = cacheManager.fetchOrLoad(CacheNamespaces.AGENT_IDS_BY_CITY, city, Duration.ofMinutes(1), () -> {
+                loads.add(city);
+                return Optional.of(List.of(1L));
+            }).orElseThrow();
+
+            assertThat(agentIds).containsExactly(1L);
+        }
+
+        assertThat(loads).hasSize(1);
+    }
+
+    private boolean awaitValue(CacheManager instance, String city, List<Long> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (System.currentTimeMillis() < deadline) {
+            if (Objects.equals(instance.fetch(CacheNamespaces.AGENT_IDS_BY_CITY, city).orElse(null), expected)) {
+                return true;
+            }
+
+            Thread.sleep(50);
+        }
+
+        return false;
+    }
+
+    private CacheConfigProperties nearCacheProperties() {
+        CacheConfigProperties properties = new CacheConfigProperties();
+        properties.getNear().put("agent-ids-by-city", new CacheConfigProperties.NearCache());
+
+        return properties;
+    }
+
+    private CacheManager createInstance(CacheConfigProperties properties) {
+        LettuceConnectionFactory instanceConnectionFactory = createConnectionFactory();
+
+        RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(instanceConnectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainers.add(listenerContainer);
+
+        CacheManager instance = new CacheManager(createTemplate(instanceConnectionFactory), listenerContainer, properties, meterRegistry);
+        instance.init();
+        listenerContainer.start();
+
+        return instance;
+    }
+
+    private LettuceConnectionFactory createConnectionFactory() {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379))
+        );
+        factory.afterPropertiesSet();
+        connectionFactories.add(factory);
+
+        return factory;
+    }
+
+    private RedisTemplate<String, byte[]> createTemplate(LettuceConnectionFactory factory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(factory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+
+        return template;
+    }
+
+    private double requestCount(String cache, String result) {
+        return meterRegistry.counter("meetingease.cache.requests", Metrics.CACHE, cache, Metrics.RESULT, result).count();
+    }
+
+    private String randomId() {
+        return String.valueOf(UUID.randomUUID());
+    }
+}
@@ -0,0 +1,68 @@
+package ru.halcyon.meetingease.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiringCacheTests {
+    @Test
+    void get_ReturnsValueUntilItExpires() throws InterruptedException {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", Instant.now().plus(Duration.ofMillis(200)));
+
+        assertThat(cache.get("key")).contains("value");
+
+        Thread.sleep(300);
+
+        assertThat(cache.get("key")).isEmpty();
+    }
+
+    @Test
+    void put_IgnoresAlreadyExpiredValue() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", Instant.now().minusSeconds(1));
+
+        assertThat(cache.get("key")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_EvictsBeyondMaxSize() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100);
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i, expiresAt);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.getEvictionCount()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void invalidateAll_DropsEveryEntry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("first", "value", Instant.now().plus(Duration.ofMinutes(1)));
+        cache.put("second", "value", Instant.now().plus(Duration.ofMinutes(1)));
+
+        cache.invalidateAll();
+
+        assertThat(cache.get("first")).isEmpty();
+        assertThat(cache.get("second")).isEmpty();
+    }
+
+    @Test
+    void get_CountsHitsAndMisses() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10);
+        cache.put("key", "value", Instant.now().plus(Duration.ofMinutes(1)));
+
+        cache.get("key");
+        cache.get("missing");
+
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.halcyon.meetingease.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class RedisUserMessageRelayTests {
+    @Container
+    private static final RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:5.0.5-alpine"))
+            .withExposedPorts(6379);
+
+    private final List<LettuceConnectionFactory> connectionFactories = new ArrayList<>();
+    private final List<RedisMessageListenerContainer> listenerContainers = new ArrayList<>();
+
+    private final List<Message<?>> firstInstanceMessages = new CopyOnWriteArrayList<>();
+    private final List<Message<?>> secondInstanceMessages = new CopyOnWriteArrayList<>();
+
+    private RedisUserMessageRelay firstInstance;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        firstInstance = createInstance(firstInstanceMessages);
+        createInstance(secondInstanceMessages);
+
+        // Subscriptions are established asynchronously
+        Thread.sleep(500);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisMessageListenerContainer listenerContainer: listenerContainers) {
+            listenerContainer.destroy();
+        }
+
+        for (LettuceConnectionFactory connectionFactory: connectionFactories) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void sendToUser_ReachesEveryInstance() throws InterruptedException {
+        firstInstance.sendToUser("1", "/queue/messages", Map.of("content", "test_content"));
+
+        assertThat(awaitMessage(firstInstanceMessages)).isTrue();
+        assertThat(awaitMessage(secondInstanceMessages)).isTrue();
+
+        Message<?> delivered = secondInstanceMessages.get(0);
+        assertThat(SimpMessageHeaderAccessor.getDestination(delivered.getHeaders())).isEqualTo("/user/1/queue/messages");
+        assertThat(((JsonNode) delivered.getPayload()).get("content").asText()).isEqualTo("test_content");
+        assertThat(firstInstance.getPublishedCount()).isEqualTo(1);
+    }
+
+    private boolean awaitMessage(List<Message<?>> messages) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (System.currentTimeMillis() < deadline) {
+            if (!messages.isEmpty()) {
+                return true;
+            }
+
+            Thread.sleep(50);
+        }
+
+        return false;
+    }
+
+    private RedisUserMessageRelay createInstance(List<Message<?>> deliveredMessages) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379))
+        );
+        connectionFactory.afterPropertiesSet();
+        connectionFactories.add(connectionFactory);
+
+        RedisMessageListenerContainer listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainers.add(listenerContainer);
+
+        // Stands in for the instance's broker channel
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> deliveredMessages.add(message));
+
+        RedisUserMessageRelay relay = new RedisUserMessageRelay(
+                new StringRedisTemplate(connectionFactory),
+                listenerContainer,
+                messagingTemplate,
+                new ObjectMapper().findAndRegisterModules()
+        );
+        relay.init();
+        listenerContainer.start();
+
+        return relay;
+    }
+}
@@ -0,0 +1,176 @@
+package ru.halcyon.meetingease.websocket;
+
+import com.redis.testcontainers.RedisContainer;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import ru.halcyon.meetingease.exception.TokenVerificationException;
+import ru.halcyon.meetingease.model.Agent;
+import ru.halcyon.meetingease.model.Client;
+import ru.halcyon.meetingease.repository.ClientRepository;
+import ru.halcyon.meetingease.security.JwtProvider;
+import ru.halcyon.meetingease.service.agent.AgentService;
+import ru.halcyon.meetingease.service.auth.RevokedTokenRegistry;
+import ru.halcyon.meetingease.support.Role;
+import ru.halcyon.meetingease.util.CacheManager;
+import ru.halcyon.meetingease.util.CacheNamespaces;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StompAuthChannelInterceptorTests {
+    @Autowired
+    private StompAuthChannelInterceptor interceptor;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private AgentService agentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15.6");
+
+    @Container
+    private static final RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:5.0.5-alpine"))
+            .withExposedPorts(6379);
+
+    private static final MessageChannel CHANNEL = (message, timeout) -> true;
+
+    @DynamicPropertySource
+    public static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    void connect_BindsClientPrincipal() {
+        Client client = createClient();
+        StompHeaderAccessor accessor = connectAccessor("Bearer " + jwtProvider.generateAccessTokenForClient(client));
+
+        interceptor.preSend(createMessage(accessor), CHANNEL);
+
+        assertThat(accessor.getUser()).isInstanceOf(StompPrincipal.class);
+        assertThat(accessor.getUser().getName()).isEqualTo("client:" + client.getId());
+    }
+
+    @Test
+    void connect_BindsAgentPrincipal() {
+        Agent agent = agentService.findById(1L);
+        StompHeaderAccessor accessor = connectAccessor("Bearer " + jwtProvider.generateAccessTokenForAgent(agent));
+
+        interceptor.preSend(createMessage(accessor), CHANNEL);
+
+        assertThat(accessor.getUser().getName()).isEqualTo("agent:" + agent.getId());
+    }
+
+    @Test
+    void connect_RejectsMissingToken() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setLeaveMutable(true);
+
+        assertThrows(TokenVerificationException.class, () -> interceptor.preSend(createMessage(accessor), CHANNEL));
+    }
+
+    @Test
+    void connect_RejectsInvalidToken() {
+        StompHeaderAccessor accessor = connectAccessor("Bearer invalid_token");
+
+        assertThrows(TokenVerificationException.class, () -> interceptor.preSend(createMessage(accessor), CHANNEL));
+    }
+
+    @Test
+    void send_RejectsExpiredSession() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setUser(new StompPrincipal(1L, "test_email@gmail.com", true, Instant.now().minusSeconds(1), "test_jti"));
+        accessor.setLeaveMutable(true);
+
+        assertThrows(TokenVerificationException.class, () -> interceptor.preSend(createMessage(accessor), CHANNEL));
+    }
+
+    @Test
+    void send_RejectsRevokedSession() {
+        Instant expiration = Instant.now().plusSeconds(60);
+        cacheManager.save(CacheNamespaces.REVOKED_JTIS, "revoked_jti", Duration.ofSeconds(60));
+        revokedTokenRegistry.register("revoked_jti", expiration);
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setUser(new StompPrincipal(1L, "test_email@gmail.com", true, expiration, "revoked_jti"));
+        accessor.setLeaveMutable(true);
+
+        assertThrows(TokenVerificationException.class, () -> interceptor.preSend(createMessage(accessor), CHANNEL));
+    }
+
+    private StompHeaderAccessor connectAccessor(String authHeader) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setNativeHeader("Authorization", authHeader);
+        accessor.setLeaveMutable(true);
+
+        return accessor;
+    }
+
+    private Message<byte[]> createMessage(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private Client createClient() {
+        return clientRepository.save(
+                Client.builder()
+                        .email("test_email@gmail.com")
+                        .name("test_name")
+                        .surname("test_surname")
+                        .password("test_password")
+                        .position("test_position")
+                        .phoneNumber("test_number")
+                        .isVerified(true)
+                        .role(Role.ADMIN)
+                        .photo("test_photo")
+                        .build()
+        );
+    }
+}